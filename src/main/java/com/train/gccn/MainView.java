@@ -0,0 +1,53 @@
+package com.train.gccn;
+
+import com.train.gccn.model.trustlist.IssuerDirectory;
+import com.train.gccn.pipeline.CacheWarmer;
+import com.train.gccn.server.ApiServer;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Main class of the jar: runs the {@link ApiServer} on <code>server_port</code> (8080 by default) and warms up the
+ * caches, see {@link CacheWarmer}; lists are tracked by the {@link IssuerDirectory} from then on. The server is
+ * stopped gracefully on JVM shutdown (e.g. SIGTERM).
+ * <pre>
+ * java -jar trust-registry.jar [custom-config.properties]
+ * </pre>
+ */
+public class MainView {
+
+    private static Logger logger = Logger.getLogger(MainView.class);
+
+    public static void main(String[] args) {
+        if(args.length > 1) {
+            System.err.println("Usage: MainView [custom-config.properties]");
+            System.exit(2);
+        }
+
+        try {
+            if(args.length == 1) {
+                ATVConfiguration.init(new File(args[0]));
+            }
+        } catch(ConfigurationException | IllegalArgumentException e) {
+            MainView.logger.error("Could not load configuration " + args[0], e);
+            System.exit(2);
+        }
+
+        ApiServer server;
+        try {
+            server = new ApiServer(ATVConfiguration.get().getInt("server_port", 8080));
+        } catch(IOException e) {
+            MainView.logger.error("Could not start API server", e);
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "api-shutdown"));
+        server.start();
+
+        IssuerDirectory.get();
+        CacheWarmer.warmUp();
+    }
+}
@@ -0,0 +1,81 @@
+package com.train.gccn;
+
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.report.StdOutReportObserver;
+import com.train.gccn.model.trustscheme.TrustScheme;
+import com.train.gccn.model.trustscheme.TrustSchemeClaim;
+import com.train.gccn.model.trustscheme.TrustSchemeFactory;
+import com.train.gccn.wrapper.TrustSnapshot;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Export command for offline serving (see {@link TrustSnapshot}).
+ * <p>
+ * Runs on a connected node and resolves the given claims (default: all configured <code>trustscheme_claim.*</code>),
+ * recording every DNS answer and downloaded Trust Status List into the snapshot directory.
+ * <pre>
+ * java com.train.gccn.SnapshotExport &lt;snapshot-dir&gt; [claim ...]
+ * </pre>
+ */
+public class SnapshotExport {
+
+    private static Logger logger = Logger.getLogger(SnapshotExport.class);
+
+    public static void main(String[] args) {
+        if(args.length < 1) {
+            System.err.println("Usage: SnapshotExport <snapshot-dir> [claim ...]");
+            System.exit(2);
+        }
+
+        Collection<String> claims;
+        if(args.length > 1) {
+            claims = Arrays.asList(args).subList(1, args.length);
+        } else {
+            claims = new TreeSet<>(ATVConfiguration.getForPrefix("trustscheme_claim").values());
+        }
+
+        boolean success = SnapshotExport.export(new File(args[0]), claims);
+        System.exit(success ? 0 : 1);
+    }
+
+    /**
+     * @return <code>true</code> if all claims were resolved and recorded.
+     */
+    public static boolean export(File directory, Collection<String> claims) {
+        if(TrustSnapshot.getOffline() != null) {
+            SnapshotExport.logger.error("Cannot export a snapshot in offline mode.");
+            return false;
+        }
+
+        Report report = new Report();
+        report.addObserver(new StdOutReportObserver());
+
+        int numExported = 0;
+        TrustSnapshot.startRecording(new TrustSnapshot(directory));
+        try {
+            for(String claim : claims) {
+                SnapshotExport.logger.info("Exporting claim " + claim + " ...");
+                try {
+                    TrustScheme scheme = TrustSchemeFactory.createTrustScheme(new TrustSchemeClaim(claim), report);
+                    if(scheme != null) {
+                        numExported++;
+                    } else {
+                        SnapshotExport.logger.error("Could not resolve claim " + claim);
+                    }
+                } catch(Exception e) {
+                    SnapshotExport.logger.error("Could not export claim " + claim, e);
+                }
+            }
+        } finally {
+            TrustSnapshot.stopRecording();
+        }
+
+        SnapshotExport.logger.info("Exported " + numExported + " of " + claims.size() + " claim(s) to " + directory.getAbsolutePath());
+        return numExported == claims.size();
+    }
+}
@@ -1,118 +1,119 @@
-package com.train.gccn.client;
-
-import com.train.gccn.exceptions.DNSException;
-import com.train.gccn.model.report.BufferedStdOutReportObserver;
-import com.train.gccn.model.report.Report;
-import com.train.gccn.model.trustscheme.TrustScheme;
-import com.train.gccn.model.trustscheme.TrustSchemeClaim;
-import com.train.gccn.model.trustscheme.TrustSchemeFactory;
-import com.train.gccn.wrapper.XMLUtil;
-import org.xml.sax.SAXException;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Node;
-import java.util.ArrayList;
-
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.IOException;
-
-public class SSIClient {
-
-    public class VerificationResultClass {
-        String ReceivedTrustSchemePointer = "";
-        boolean FindingCorrespondingTrustSchemeInitiated = false;
-        String FoundCorrespondingTrustScheme = "";
-        boolean TrustListDiscoveryInitiated = false;
-        String TrustListFoundAndLoaded = "";
-        String FoundIssuer = "";
-        String ServiceTypeIdentifier = "";
-        boolean VerifyIssuer = false;
-        boolean VerificationSuccessful = false;
-    }
-
-    public class SSIResponse {
-
-        public boolean VerificationStatus = false;
-        public VerificationResultClass VerificationResult = new VerificationResultClass();
-
-    }
-
-    public SSIResponse VerifyIdentity(String issuer, String claim)
-    {
-        Report report = new Report();
-        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
-        report.addObserver(reportBuffer);
-
-        report.addLine("Checking Identity");
-        report.addLine("DID: " + issuer);
-        report.addLine("Claim: " + claim);
-
-        System.out.println("DID: " + issuer);
-        System.out.println("Claim: " + claim);
-
-        TrustSchemeClaim TSClaim = new TrustSchemeClaim(claim);
-        TrustSchemeFactory TSFactory = new TrustSchemeFactory();
-
-        boolean bVerificationStatus = false; 
-
-        SSIResponse resp = new SSIResponse();
-        resp.VerificationResult.ReceivedTrustSchemePointer = claim;
-        resp.VerificationResult.FindingCorrespondingTrustSchemeInitiated = true;
-
-
-        try {
-            TrustScheme scheme = TSFactory.createTrustScheme(TSClaim, report);
-
-            if(scheme == null)
-                throw new IOException("Did not find TrustScheme / TrustList");
-
-            resp.VerificationResult.FoundCorrespondingTrustScheme = scheme.getSchemeIdentifierCleaned();
-            resp.VerificationResult.TrustListDiscoveryInitiated = true;
-            resp.VerificationResult.TrustListFoundAndLoaded = scheme.getTSLlocation();
-
-            report.addLine("TrustScheme Hostname: " + scheme.getSchemeIdentifierCleaned());
-            report.addLine("TrustList Location: " + scheme.getTSLlocation());
-
-
-            XMLUtil util = new XMLUtil(scheme.getTSLcontent());
-            NodeList TSPs = util.getElementsByXpath("//TrustServiceProviderList/TrustServiceProvider");
-            //TSPinfo TSPs = new TSPinfo(util.getElementsByXpath("//TrustServiceProviderList/TrustServiceProvider"));
-                        
-            for(int i=0;i<TSPs.getLength();i++)
-            {
-                Node TSP = TSPs.item(i);
-                //String DID = util.getElementByXPath("//TrustServiceProviderList/TrustServiceProvider/TSPInformation/IssuerName/Name[1]/text()");
-                String DID = util.getElementByXPath("TSPInformation/IssuerName/Name[1]/text()", TSP);
-                report.addLine("Issuer (extracted): " + DID);
-
-                if (DID.equals(issuer))
-                {
-                    resp.VerificationResult.FoundIssuer = issuer;
-                    resp.VerificationResult.VerifyIssuer = true;
-                    String servicetype = util.getElementByXPath("TSPServices/TSPService/ServiceInformation/ServiceTypeIdentifier/text()", TSP);
-                    System.out.println("servicetypeidentifier:" + servicetype);
-                    resp.VerificationResult.ServiceTypeIdentifier = servicetype;
-                    resp.VerificationResult.VerificationSuccessful = true;
-                    resp.VerificationStatus = true;
-                    break;
-                    
-                }
-               
-
-            }
-        }catch (Exception e)
-        {
-
-            report.addLine("Checking identity failed: ");
-            report.addLine(e.getMessage());
-
-        }
-        reportBuffer.print();
-
-
-
-
-
-
-        return resp;
-    }
-}
+package com.train.gccn.client;
+
+import com.train.gccn.model.report.BufferedStdOutReportObserver;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.trustlist.ServiceRecord;
+import com.train.gccn.model.trustlist.TSPRecord;
+import com.train.gccn.model.trustscheme.TrustScheme;
+import com.train.gccn.pipeline.AsyncVerification;
+import com.train.gccn.pipeline.IssuerVerification;
+import com.train.gccn.pipeline.MatchKey;
+import com.train.gccn.pipeline.VerificationEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class SSIClient {
+
+    public class VerificationResultClass {
+        String ReceivedTrustSchemePointer = "";
+        boolean FindingCorrespondingTrustSchemeInitiated = false;
+        String FoundCorrespondingTrustScheme = "";
+        boolean TrustListDiscoveryInitiated = false;
+        String TrustListFoundAndLoaded = "";
+        String FoundIssuer = "";
+        String ServiceTypeIdentifier = "";
+        boolean VerifyIssuer = false;
+        boolean VerificationSuccessful = false;
+    }
+
+    public class SSIResponse {
+
+        public boolean VerificationStatus = false;
+        public VerificationResultClass VerificationResult = new VerificationResultClass();
+
+    }
+
+    public SSIResponse VerifyIdentity(String issuer, String claim)
+    {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+        this.reportRequest(report, issuer, claim);
+
+        SSIResponse resp = VerificationEngine.get().verify(this.verification(issuer, claim), report);
+        reportBuffer.print();
+
+        return resp;
+    }
+
+    /**
+     * Async variant of {@link #VerifyIdentity(String, String)}, see {@link AsyncVerification}.
+     */
+    public CompletableFuture<SSIResponse> VerifyIdentityAsync(String issuer, String claim)
+    {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+        this.reportRequest(report, issuer, claim);
+
+        return VerificationEngine.get().verifyAsync(this.verification(issuer, claim), report).thenApply(resp -> {
+            reportBuffer.print();
+            return resp;
+        });
+    }
+
+    /**
+     * Batch variant of {@link #VerifyIdentity(String, String)}, without per-pair report output, see
+     * {@link VerificationEngine#verifyAll(List)}.
+     *
+     * @return one response per request, in input order.
+     */
+    public List<SSIResponse> VerifyIdentities(List<VerificationRequest> requests)
+    {
+        List<IssuerVerification<SSIResponse>> verifications = new ArrayList<>(requests.size());
+        for(VerificationRequest request : requests) {
+            verifications.add(this.verification(request.getIssuer(), request.getClaim()));
+        }
+        return VerificationEngine.get().verifyAll(verifications);
+    }
+
+    private void reportRequest(Report report, String issuer, String claim) {
+        report.addLine("Checking Identity");
+        report.addLine("DID: " + issuer);
+        report.addLine("Claim: " + claim);
+
+        System.out.println("DID: " + issuer);
+        System.out.println("Claim: " + claim);
+    }
+
+    private IssuerVerification<SSIResponse> verification(String issuer, String claim) {
+        return new IssuerVerification<>("SSI", issuer, claim, MatchKey.ISSUER_NAME, () -> {
+            SSIResponse resp = new SSIResponse();
+            resp.VerificationResult.ReceivedTrustSchemePointer = claim;
+            resp.VerificationResult.FindingCorrespondingTrustSchemeInitiated = true;
+            return resp;
+        }, (resp, scheme, TSP, report) -> {
+            this.setScheme(resp, scheme);
+            if(TSP != null) {
+                this.setIssuer(resp, issuer, TSP);
+                report.addLine("servicetypeidentifier:" + resp.VerificationResult.ServiceTypeIdentifier);
+            }
+        });
+    }
+
+    private void setScheme(SSIResponse resp, TrustScheme scheme) {
+        resp.VerificationResult.FoundCorrespondingTrustScheme = scheme.getSchemeIdentifierCleaned();
+        resp.VerificationResult.TrustListDiscoveryInitiated = true;
+        resp.VerificationResult.TrustListFoundAndLoaded = scheme.getTSLlocation();
+    }
+
+    private void setIssuer(SSIResponse resp, String issuer, TSPRecord TSP) {
+        resp.VerificationResult.FoundIssuer = issuer;
+        resp.VerificationResult.VerifyIssuer = true;
+        resp.VerificationResult.ServiceTypeIdentifier = TSP.getServiceValue(ServiceRecord::getServiceTypeIdentifier);
+        resp.VerificationResult.VerificationSuccessful = true;
+        resp.VerificationStatus = true;
+    }
+}
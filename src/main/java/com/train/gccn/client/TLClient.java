@@ -1,211 +1,563 @@
-package com.train.gccn.client;
-
-import com.train.gccn.model.report.BufferedStdOutReportObserver;
-import com.train.gccn.model.report.Report;
-import com.train.gccn.model.trustscheme.TrustScheme;
-import com.train.gccn.model.trustscheme.TrustSchemeClaim;
-import com.train.gccn.model.trustscheme.TrustSchemeFactory;
-import com.train.gccn.wrapper.XMLUtil;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Node;
-//import org.json.*;
-import java.util.ArrayList;
-import com.google.gson.*;
-
-import java.io.IOException;
-import java.util.List;
-
-public class TLClient {
-
-    public class CountryList {
-       List<CountryScheme> TrustListEntries;
-
-    }
-
-    public class CountryScheme {
-        String CountryName;
-        String TrustScheme;
-
-        public CountryScheme(String countryName, String schemeName) {
-            CountryName = countryName;
-            TrustScheme = schemeName;
-        }
-    }
-    public class RegistryResponse {
-
-        public ArrayList<CountryScheme> TrustListEntries = new ArrayList<CountryScheme>();
-
-    }
-
-    public RegistryResponse VerifyIdentity(String claim)
-    {
-        Report report = new Report();
-        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
-        report.addObserver(reportBuffer);
-
-        report.addLine("Claim: " + claim);
-
-        System.out.println("Claim: " + claim);
-
-        TrustSchemeClaim TSClaim = new TrustSchemeClaim(claim);
-        TrustSchemeFactory TSFactory = new TrustSchemeFactory();
-
-        RegistryResponse resp = new RegistryResponse();
-        ArrayList<CountryScheme> TrustListEntries = new ArrayList<>();
-
-
-        try {
-            TrustScheme scheme = TSFactory.createTrustScheme(TSClaim, report);
-
-            if(scheme == null)
-                throw new IOException("Did not find TrustScheme / TrustList");
-
-            report.addLine("TrustScheme Hostname: " + scheme.getSchemeIdentifierCleaned());
-            report.addLine("TrustList Location: " + scheme.getTSLlocation());
-
-
-            XMLUtil util = new XMLUtil(scheme.getTSLcontent());
-            NodeList TSPs = util.getElementsByXpath("//TrustServiceProviderList/TrustServiceProvider");
-            //TSPinfo TSPs = new TSPinfo(util.getElementsByXpath("//TrustServiceProviderList/TrustServiceProvider"));
-
-            for(int i=0;i<TSPs.getLength();i++)
-            {
-                Node TSP = TSPs.item(i);
-                //String DID = util.getElementByXPath("//TrustServiceProviderList/TrustServiceProvider/TSPInformation/IssuerName/Name[1]/text()");
-                String CountryName = util.getElementByXPath("TSPInformation/TSPLegalName/Name[1]/text()", TSP);
-                String SchemeName = util.getElementByXPath("TSPInformation/TrustSchemeName/Name[1]/text()", TSP);
-                report.addLine("Issuer (extracted): " + CountryName);
-                report.addLine("SchemeName (extracted): " + SchemeName);
-                TrustListEntries.add(new CountryScheme(CountryName,SchemeName));
-                //CountryList countrylist = new CountryList();
-
-
-            }
-            resp.TrustListEntries = TrustListEntries;
-            Gson gson = new Gson();
-            String countrylistJSON = gson.toJson(TrustListEntries);
-            //resp.VerificationResult = countrylistJSON;
-            System.out.println("Result:" + countrylistJSON);
-            System.out.println(resp);
-
-        }catch (Exception e)
-        {
-
-            report.addLine("Checking identity failed: ");
-            report.addLine(e.getMessage());
-
-        }
-        reportBuffer.print();
-
-
-
-
-
-
-        return resp;
-    }
-
-    public class TrustListFetchClass {
-        //boolean TrustListFoundAndLoaded = false;
-        String TSPName = "";
-        String ServiceTypeIdentifier = "";
-        String SchemeServiceDefinition = "";
-        String ServiceSupplyPoint = "";
-        String ServiceDefinitionURI = "";
-        String ServiceGovernanceURI = "";
-        String ServiceDigitalID = "";
-        String EntityIdentifierURI = "";
-        String QualifierURI = "";
-
-        public TrustListFetchClass(String tspName, String servicetype, String schemeservicedefinition, String servicesupplypoint, String servicedefintionURI, String servicegovernanceURI, String servicedigitalid, String tspEntityIdentifierURI, String qualifierURI) {
-            this.TSPName = tspName;
-            this.ServiceTypeIdentifier = servicetype;
-            this.SchemeServiceDefinition = schemeservicedefinition;
-            this.ServiceSupplyPoint = servicesupplypoint;
-            this.ServiceDefinitionURI = servicedefintionURI;
-            this.ServiceGovernanceURI = servicegovernanceURI;
-            this.ServiceDigitalID = servicedigitalid;
-            this.EntityIdentifierURI = tspEntityIdentifierURI;
-            this.QualifierURI = qualifierURI;
-
-        }
-    }
-
-    public class TrustListIndividualResponse {
-        public ArrayList<TrustListFetchClass> TrustedServiceProviderDetails = new ArrayList<TrustListFetchClass>();
-    }
-
-    public TrustListIndividualResponse TrustListFetch (String claim) {
-        Report report = new Report();
-        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
-        report.addObserver(reportBuffer);
-
-        report.addLine("Claim: " + claim);
-
-        System.out.println("Claim: " + claim);
-
-        TrustSchemeClaim TSClaim = new TrustSchemeClaim(claim);
-        TrustSchemeFactory TSFactory = new TrustSchemeFactory();
-
-        TrustListIndividualResponse resp = new TrustListIndividualResponse();
-        ArrayList<TrustListFetchClass> TrustedServiceProviderDetails = new ArrayList<>();
-
-
-        try {
-            TrustScheme scheme = TSFactory.createTrustScheme(TSClaim, report);
-
-            if(scheme == null)
-                throw new IOException("Did not find TrustScheme / TrustList");
-
-            report.addLine("TrustScheme Hostname: " + scheme.getSchemeIdentifierCleaned());
-            report.addLine("TrustList Location: " + scheme.getTSLlocation());
-
-
-            XMLUtil util = new XMLUtil(scheme.getTSLcontent());
-            NodeList TSPs = util.getElementsByXpath("//TrustServiceProviderList/TrustServiceProvider");
-            //TSPinfo TSPs = new TSPinfo(util.getElementsByXpath("//TrustServiceProviderList/TrustServiceProvider"));
-
-            for(int i=0;i<TSPs.getLength();i++)
-            {
-                Node TSP = TSPs.item(i);
-                String TSPName = util.getElementByXPath("TSPInformation/TSPLegalName/Name[1]/text()", TSP);
-                String servicetype = util.getElementByXPath("TSPServices/TSPService/ServiceInformation/ServiceTypeIdentifier/text()", TSP);
-                System.out.println("servicetypeidentifier:" + servicetype);
-                String schemeservicedefinition = util.getElementByXPath("TSPServices/TSPService/ServiceInformation/SchemeServiceDefinition/text()", TSP);
-                String servicesupplypoint = util.getElementByXPath("TSPServices/TSPService/ServiceInformation/ServiceSupplyPoint/text()", TSP);
-                String servicedefintionURI = util.getElementByXPath("TSPServices/TSPService/ServiceInformation/ServiceDefintionURI/text()", TSP);
-                String servicegovernanceURI = util.getElementByXPath("TSPServices/TSPService/ServiceInformation/AdditionalServiceInformation/ServiceGovernanceURI/text()", TSP);
-                String servicedigitalid = util.getElementByXPath("TSPServices/TSPService/ServiceInformation/ServiceDigitalIdentity/DigitalId/X509Certificate/text()", TSP);
-                String tspEntityIdentifierURI = util.getElementByXPath("TSPInformation/TSPEntityIdentifierList/TSPEntityIdentifier/TSPEntityIdentifierURI/text()", TSP);
-                String qualifierURI = util.getElementByXPath("TSPInformation/TSPQualifierList/TSPQualifier/QualifierURI/text()", TSP);
-
-                TrustedServiceProviderDetails.add(new TrustListFetchClass(TSPName, servicetype, schemeservicedefinition, servicesupplypoint, servicedefintionURI, servicegovernanceURI, servicedigitalid, tspEntityIdentifierURI, qualifierURI));
-
-
-
-            }
-            resp.TrustedServiceProviderDetails = TrustedServiceProviderDetails;
-            Gson gson = new Gson();
-            String trustlistindividualJSON = gson.toJson(TrustedServiceProviderDetails);
-            System.out.println("Result:" + trustlistindividualJSON);
-            System.out.println(resp);
-
-        }catch (Exception e)
-        {
-
-            report.addLine("Checking identity failed: ");
-            report.addLine(e.getMessage());
-
-        }
-        reportBuffer.print();
-
-
-
-
-
-
-        return resp;
-
-
-    }
+package com.train.gccn.client;
+
+import com.train.gccn.model.Deadline;
+import com.train.gccn.model.report.BufferedStdOutReportObserver;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.trustlist.ServiceRecord;
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.model.trustlist.IssuerDirectory;
+import com.train.gccn.model.trustlist.IssuerListing;
+import com.train.gccn.model.trustlist.NameMatch;
+import com.train.gccn.model.trustlist.NameSearchIndex;
+import com.train.gccn.model.trustlist.TSPRecord;
+import com.train.gccn.model.trustlist.TrustList;
+import com.train.gccn.model.trustlist.TrustListPage;
+import com.train.gccn.model.trustlist.TrustListQuery;
+import com.train.gccn.model.trustscheme.TrustSchemeClaim;
+import com.train.gccn.pipeline.AsyncVerification;
+import com.train.gccn.pipeline.Verification;
+import com.train.gccn.pipeline.VerificationContext;
+import com.train.gccn.pipeline.VerificationEngine;
+//import org.json.*;
+import java.util.ArrayList;
+import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+public class TLClient {
+
+    private static final Gson gson = new Gson();
+    private static final TypeAdapter<TrustListFetchClass> fetchAdapter = TLClient.gson.getAdapter(TrustListFetchClass.class);
+    private static final Map<String, Function<TSPRecord, String>> fields = new LinkedHashMap<>();
+
+    static {
+        TLClient.fields.put("TSPName", TSPRecord::getLegalName);
+        TLClient.fields.put("CountryName", TSPRecord::getCountryName);
+        TLClient.fields.put("ServiceTypeIdentifier", TSP -> TSP.getServiceValue(ServiceRecord::getServiceTypeIdentifier));
+        TLClient.fields.put("SchemeServiceDefinition", TSP -> TSP.getServiceValue(ServiceRecord::getSchemeServiceDefinition));
+        TLClient.fields.put("ServiceSupplyPoint", TSP -> TSP.getServiceValue(ServiceRecord::getServiceSupplyPoint));
+        TLClient.fields.put("ServiceDefinitionURI", TSP -> TSP.getServiceValue(ServiceRecord::getServiceDefinitionURI));
+        TLClient.fields.put("ServiceGovernanceURI", TSP -> TSP.getServiceValue(ServiceRecord::getServiceGovernanceURI));
+        TLClient.fields.put("ServiceDigitalID", TSP -> TSP.getServiceValue(ServiceRecord::getServiceDigitalId));
+        TLClient.fields.put("EntityIdentifierURI", TSPRecord::getEntityIdentifierURI);
+        TLClient.fields.put("QualifierURI", TSPRecord::getQualifierURI);
+    }
+
+    public class CountryList {
+       List<CountryScheme> TrustListEntries;
+
+    }
+
+    public class CountryScheme {
+        String CountryName;
+        String TrustScheme;
+
+        public CountryScheme(String countryName, String schemeName) {
+            CountryName = countryName;
+            TrustScheme = schemeName;
+        }
+    }
+    public class RegistryResponse {
+
+        public ArrayList<CountryScheme> TrustListEntries = new ArrayList<CountryScheme>();
+
+    }
+
+    public RegistryResponse VerifyIdentity(String claim)
+    {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+
+        System.out.println("Claim: " + claim);
+
+        RegistryResponse resp = VerificationEngine.get().verify(this.registry(claim), report);
+        reportBuffer.print();
+
+        return resp;
+    }
+
+    /**
+     * Async variant of {@link #VerifyIdentity(String)}, see {@link AsyncVerification}.
+     */
+    public CompletableFuture<RegistryResponse> VerifyIdentityAsync(String claim) {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+
+        System.out.println("Claim: " + claim);
+
+        return VerificationEngine.get().verifyAsync(this.registry(claim), report).thenApply(resp -> {
+            reportBuffer.print();
+            return resp;
+        });
+    }
+
+    private Verification<RegistryResponse> registry(String claim) {
+        return new Verification<RegistryResponse>() {
+            @Override
+            public String getClaim() {
+                return claim;
+            }
+
+            @Override
+            public RegistryResponse newResponse() {
+                return new RegistryResponse();
+            }
+
+            @Override
+            public void apply(RegistryResponse resp, VerificationContext context, Report report) {
+                ArrayList<CountryScheme> TrustListEntries = new ArrayList<>();
+                TrustList trustList = context.getTrustList();
+
+                for(TSPRecord TSP : trustList.getProviders())
+                {
+                    String CountryName = TSP.getLegalName();
+                    String SchemeName = TSP.getTrustSchemeName();
+                    report.addLine("Issuer (extracted): " + CountryName);
+                    report.addLine("SchemeName (extracted): " + SchemeName);
+                    TrustListEntries.add(new CountryScheme(CountryName,SchemeName));
+                    //CountryList countrylist = new CountryList();
+
+
+                }
+                resp.TrustListEntries = TrustListEntries;
+                //resp.VerificationResult = countrylistJSON;
+                System.out.print("Result:");
+                TLClient.gson.toJson(TrustListEntries, System.out);
+                System.out.println();
+                System.out.println(resp);
+            }
+        };
+    }
+
+    public class TrustListFetchClass {
+        //boolean TrustListFoundAndLoaded = false;
+        String TSPName = "";
+        String ServiceTypeIdentifier = "";
+        String SchemeServiceDefinition = "";
+        String ServiceSupplyPoint = "";
+        String ServiceDefinitionURI = "";
+        String ServiceGovernanceURI = "";
+        String ServiceDigitalID = "";
+        String EntityIdentifierURI = "";
+        String QualifierURI = "";
+
+        public TrustListFetchClass(String tspName, String servicetype, String schemeservicedefinition, String servicesupplypoint, String servicedefintionURI, String servicegovernanceURI, String servicedigitalid, String tspEntityIdentifierURI, String qualifierURI) {
+            this.TSPName = tspName;
+            this.ServiceTypeIdentifier = servicetype;
+            this.SchemeServiceDefinition = schemeservicedefinition;
+            this.ServiceSupplyPoint = servicesupplypoint;
+            this.ServiceDefinitionURI = servicedefintionURI;
+            this.ServiceGovernanceURI = servicegovernanceURI;
+            this.ServiceDigitalID = servicedigitalid;
+            this.EntityIdentifierURI = tspEntityIdentifierURI;
+            this.QualifierURI = qualifierURI;
+
+        }
+    }
+
+    public class TrustListIndividualResponse {
+        public ArrayList<TrustListFetchClass> TrustedServiceProviderDetails = new ArrayList<TrustListFetchClass>();
+    }
+
+    public TrustListIndividualResponse TrustListFetch (String claim) {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+
+        System.out.println("Claim: " + claim);
+
+        TrustListIndividualResponse resp = VerificationEngine.get().verify(this.fetch(claim), report);
+        reportBuffer.print();
+
+        return resp;
+    }
+
+    /**
+     * Async variant of {@link #TrustListFetch(String)}, see {@link AsyncVerification}.
+     */
+    public CompletableFuture<TrustListIndividualResponse> TrustListFetchAsync(String claim) {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+
+        System.out.println("Claim: " + claim);
+
+        return VerificationEngine.get().verifyAsync(this.fetch(claim), report).thenApply(resp -> {
+            reportBuffer.print();
+            return resp;
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #TrustListFetch(String)}: writes the same JSON document (an object with the
+     * <code>TrustedServiceProviderDetails</code> array) to <code>out</code>, one provider at a time as it is extracted,
+     * without building the list or the JSON string. <code>out</code> is flushed, not closed.
+     *
+     * @return the number of providers written, or -1 if the trust list was not found (an empty array is written).
+     */
+    public int TrustListFetch(String claim, OutputStream out) throws IOException {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+
+        System.out.println("Claim: " + claim);
+
+        JsonWriter writer = TLClient.gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        FetchStream stream = VerificationEngine.get().verify(new FetchStream(claim, writer), report);
+        reportBuffer.print();
+
+        if(stream.failure != null) {
+            throw stream.failure;
+        }
+        if(!stream.started) {
+            writer.beginObject().name("TrustedServiceProviderDetails").beginArray().endArray().endObject();
+        }
+        writer.flush();
+        return stream.count;
+    }
+
+    /**
+     * Resolves the claim's trust list, for streaming it with {@link #TrustListFetch(TrustList, OutputStream)} once
+     * it is available, see {@link AsyncVerification}.
+     *
+     * @return the list, or <code>null</code> if no trust scheme was found for the claim; fails with an
+     * {@link IOException} if the scheme's list could not be loaded or verified.
+     */
+    public CompletableFuture<TrustList> TrustListResolveAsync(String claim) {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+
+        System.out.println("Claim: " + claim);
+
+        return AsyncVerification.verify(new TrustSchemeClaim(claim), report, Deadline.fromConfig())
+                .whenComplete((context, e) -> reportBuffer.print())
+                .thenApply(context -> {
+                    if(context.getScheme() != null) {
+                        return context.getTrustList();
+                    }
+                    if(context.getSchemeHostname() == null) {
+                        return null;
+                    }
+                    throw new CompletionException(new IOException("Trust list of scheme " + context.getSchemeHostname()
+                            + " could not be loaded or verified"));
+                });
+    }
+
+    /**
+     * Writes <code>trustList</code> as {@link #TrustListFetch(String, OutputStream)} does. <code>out</code> is flushed,
+     * not closed.
+     *
+     * @return the number of providers written.
+     */
+    public int TrustListFetch(TrustList trustList, OutputStream out) throws IOException {
+        JsonWriter writer = TLClient.gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        int count = this.writeFetch(trustList, writer);
+        writer.flush();
+        return count;
+    }
+
+    private int writeFetch(TrustList trustList, JsonWriter writer) throws IOException {
+        writer.beginObject().name("TrustedServiceProviderDetails").beginArray();
+        int count = 0;
+        for(TSPRecord TSP : trustList.getProviders()) {
+            TLClient.fetchAdapter.write(writer, this.fetchDetails(TSP));
+            count++;
+        }
+        writer.endArray().endObject();
+        return count;
+    }
+
+    public class TrustListPageResponse {
+        public ArrayList<Map<String, String>> TrustedServiceProviderDetails = new ArrayList<>();
+        public int TotalMatches = 0;
+        public String NextCursor = null;
+        public String Error = null;
+    }
+
+    /**
+     * Filtered and paginated variant of {@link #TrustListFetch(String)}, served from the list's secondary indexes,
+     * see {@link TrustListQuery}.
+     *
+     * @param fields the fields to return per provider (names as in {@link TrustListFetchClass}, plus
+     *               <code>CountryName</code>), all if <code>null</code> or empty.
+     * @throws IllegalArgumentException for an unknown field.
+     */
+    public TrustListPageResponse TrustListFetch(String claim, TrustListQuery query, List<String> fields) {
+        List<String> projection = fields == null || fields.isEmpty() ? new ArrayList<>(TLClient.fields.keySet()) : fields;
+        for(String field : projection) {
+            if(!TLClient.fields.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+        report.addLine("Query: " + query);
+
+        TrustListPageResponse resp = VerificationEngine.get().verify(this.query(claim, query, projection), report);
+        reportBuffer.print();
+
+        return resp;
+    }
+
+    private Verification<TrustListPageResponse> query(String claim, TrustListQuery query, List<String> projection) {
+        return new Verification<TrustListPageResponse>() {
+            @Override
+            public String getClaim() {
+                return claim;
+            }
+
+            @Override
+            public TrustListPageResponse newResponse() {
+                return new TrustListPageResponse();
+            }
+
+            @Override
+            public void apply(TrustListPageResponse resp, VerificationContext context, Report report) {
+                TrustListPage page;
+                try {
+                    page = context.getTrustList().query(query);
+                } catch(IllegalArgumentException e) {
+                    resp.Error = e.getMessage();
+                    report.addLine("Query failed: " + e.getMessage());
+                    return;
+                }
+
+                for(TSPRecord TSP : page.getProviders()) {
+                    Map<String, String> details = new LinkedHashMap<>();
+                    for(String field : projection) {
+                        details.put(field, TLClient.fields.get(field).apply(TSP));
+                    }
+                    resp.TrustedServiceProviderDetails.add(details);
+                }
+                resp.TotalMatches = page.getTotal();
+                resp.NextCursor = page.getNextCursor();
+                report.addLine("Providers matching: " + page.getTotal() + ", returned: " + page.getProviders().size());
+            }
+        };
+    }
+
+    public class NameSuggestion {
+        String Name = "";
+        String TSPName = "";
+        String EntityIdentifierURI = "";
+        double Score = 0;
+
+        public NameSuggestion(String name, String tspName, String entityIdentifierURI, double score) {
+            this.Name = name;
+            this.TSPName = tspName;
+            this.EntityIdentifierURI = entityIdentifierURI;
+            this.Score = score;
+        }
+    }
+
+    public class NameSearchResponse {
+        public ArrayList<NameSuggestion> Suggestions = new ArrayList<>();
+    }
+
+    /**
+     * Autocompletion over all provider names (legal, trade and issuer names, all languages) of the claim's list:
+     * names with a word starting with <code>prefix</code>, ignoring case and diacritics.
+     */
+    public NameSearchResponse SuggestIssuers(String claim, String prefix, int limit) {
+        return this.searchNames(claim, "Prefix: " + prefix, index -> index.suggest(prefix, limit));
+    }
+
+    /**
+     * Provider names of the claim's list similar to <code>name</code>, best first, e.g. to diagnose an issuer mismatch.
+     */
+    public NameSearchResponse FindSimilarIssuers(String claim, String name, int limit) {
+        double minScore = ATVConfiguration.get().getDouble("name_search_min_similarity", 0.3);
+        return this.searchNames(claim, "Name: " + name, index -> index.similar(name, limit, minScore));
+    }
+
+    private NameSearchResponse searchNames(String claim, String query,
+                                           Function<NameSearchIndex, List<NameMatch>> search) {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        report.addLine("Claim: " + claim);
+        report.addLine(query);
+
+        NameSearchResponse resp = VerificationEngine.get().verify(new Verification<NameSearchResponse>() {
+            @Override
+            public String getClaim() {
+                return claim;
+            }
+
+            @Override
+            public NameSearchResponse newResponse() {
+                return new NameSearchResponse();
+            }
+
+            @Override
+            public void apply(NameSearchResponse resp, VerificationContext context, Report report) {
+                for(NameMatch match : search.apply(context.getTrustList().getNameIndex())) {
+                    TSPRecord TSP = match.getProviders().get(0);
+                    resp.Suggestions.add(new NameSuggestion(match.getName(), TSP.getLegalName(),
+                            TSP.getEntityIdentifierURI(), match.getScore()));
+                }
+                report.addLine("Names found: " + resp.Suggestions.size());
+            }
+        }, report);
+        reportBuffer.print();
+
+        return resp;
+    }
+
+    public class IssuerListingEntry {
+        String SchemeId = "";
+        String TSPName = "";
+        String EntityIdentifierURI = "";
+
+        public IssuerListingEntry(String schemeId, String tspName, String entityIdentifierURI) {
+            this.SchemeId = schemeId;
+            this.TSPName = tspName;
+            this.EntityIdentifierURI = entityIdentifierURI;
+        }
+    }
+
+    public class IssuerListingResponse {
+        public ArrayList<String> TrustSchemes = new ArrayList<>();
+        public ArrayList<IssuerListingEntry> Listings = new ArrayList<>();
+    }
+
+    /**
+     * Trust schemes (of all lists parsed so far) listing the issuer by name, entity identifier URI or service
+     * certificate subject key identifier (hex); each may be <code>null</code>. No claim needs to be resolved.
+     */
+    public IssuerListingResponse FindTrustSchemes(String name, String entityIdentifierURI, String ski) {
+        Report report = new Report();
+        BufferedStdOutReportObserver reportBuffer = new BufferedStdOutReportObserver();
+        report.addObserver(reportBuffer);
+
+        IssuerListingResponse resp = new IssuerListingResponse();
+        for(IssuerListing listing : IssuerDirectory.get().find(name, entityIdentifierURI, ski)) {
+            TSPRecord TSP = listing.getProvider();
+            if(!resp.TrustSchemes.contains(listing.getSchemeId())) {
+                resp.TrustSchemes.add(listing.getSchemeId());
+            }
+            resp.Listings.add(new IssuerListingEntry(listing.getSchemeId(), TSP.getLegalName(), TSP.getEntityIdentifierURI()));
+        }
+        report.addLine("Issuer: " + name + ", URI: " + entityIdentifierURI + ", SKI: " + ski);
+        report.addLine("Listed in trust schemes: " + resp.TrustSchemes);
+        reportBuffer.print();
+
+        return resp;
+    }
+
+    private TrustListFetchClass fetchDetails(TSPRecord TSP) {
+        return new TrustListFetchClass(TSP.getLegalName(),
+                TSP.getServiceValue(ServiceRecord::getServiceTypeIdentifier),
+                TSP.getServiceValue(ServiceRecord::getSchemeServiceDefinition),
+                TSP.getServiceValue(ServiceRecord::getServiceSupplyPoint),
+                TSP.getServiceValue(ServiceRecord::getServiceDefinitionURI),
+                TSP.getServiceValue(ServiceRecord::getServiceGovernanceURI),
+                TSP.getServiceValue(ServiceRecord::getServiceDigitalId),
+                TSP.getEntityIdentifierURI(),
+                TSP.getQualifierURI());
+    }
+
+    /**
+     * Writes the providers of the resolved list; an {@link IOException} of the output is kept apart from resolution
+     * failures, so a half-written document is not followed by the empty one.
+     */
+    private class FetchStream implements Verification<FetchStream> {
+
+        private final String claim;
+        private final JsonWriter writer;
+        private boolean started = false;
+        private int count = -1;
+        private IOException failure = null;
+
+        FetchStream(String claim, JsonWriter writer) {
+            this.claim = claim;
+            this.writer = writer;
+        }
+
+        @Override
+        public String getClaim() {
+            return this.claim;
+        }
+
+        @Override
+        public FetchStream newResponse() {
+            return this;
+        }
+
+        @Override
+        public void apply(FetchStream stream, VerificationContext context, Report report) throws IOException {
+            TrustList trustList = context.getTrustList();
+            this.started = true;
+            try {
+                this.count = TLClient.this.writeFetch(trustList, this.writer);
+            } catch(IOException e) {
+                this.failure = e;
+                throw e;
+            }
+            report.addLine("Providers streamed: " + this.count);
+        }
+    }
+
+    private Verification<TrustListIndividualResponse> fetch(String claim) {
+        return new Verification<TrustListIndividualResponse>() {
+            @Override
+            public String getClaim() {
+                return claim;
+            }
+
+            @Override
+            public TrustListIndividualResponse newResponse() {
+                return new TrustListIndividualResponse();
+            }
+
+            @Override
+            public void apply(TrustListIndividualResponse resp, VerificationContext context, Report report) {
+                ArrayList<TrustListFetchClass> TrustedServiceProviderDetails = new ArrayList<>();
+                TrustList trustList = context.getTrustList();
+
+                for(TSPRecord TSP : trustList.getProviders())
+                {
+                    TrustListFetchClass details = TLClient.this.fetchDetails(TSP);
+                    System.out.println("servicetypeidentifier:" + details.ServiceTypeIdentifier);
+                    TrustedServiceProviderDetails.add(details);
+                }
+                resp.TrustedServiceProviderDetails = TrustedServiceProviderDetails;
+                System.out.print("Result:");
+                TLClient.gson.toJson(TrustedServiceProviderDetails, System.out);
+                System.out.println();
+                System.out.println(resp);
+            }
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.train.gccn.client;
+
+/**
+ * One (issuer, claim) pair of a batch verification, see {@link GCCNClient#VerifyIdentities(java.util.List)}
+ * and {@link SSIClient#VerifyIdentities(java.util.List)}.
+ */
+public class VerificationRequest {
+
+    private final String issuer;
+    private final String claim;
+
+    public VerificationRequest(String issuer, String claim) {
+        this.issuer = issuer;
+        this.claim = claim;
+    }
+
+    public String getIssuer() {
+        return this.issuer;
+    }
+
+    public String getClaim() {
+        return this.claim;
+    }
+
+    @Override
+    public String toString() {
+        return "VerificationRequest{" + this.issuer + " @ " + this.claim + "}";
+    }
+}
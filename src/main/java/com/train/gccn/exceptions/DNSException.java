@@ -1,9 +1,9 @@
-package com.train.gccn.exceptions;
-
-public class DNSException extends Exception {
-    
-    public DNSException(String s) {
-        super(s);
-    }
-}
-
+package com.train.gccn.exceptions;
+
+public class DNSException extends Exception {
+    
+    public DNSException(String s) {
+        super(s);
+    }
+}
+
@@ -0,0 +1,15 @@
+package com.train.gccn.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a verification request ran out of its time budget (see {@link com.train.gccn.model.Deadline}).
+ * <p>
+ * Extends {@link IOException}, so it travels through the existing DNS and HTTP error paths.
+ */
+public class DeadlineExceededException extends IOException {
+    
+    public DeadlineExceededException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,62 @@
+package com.train.gccn.model;
+
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.exceptions.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end time budget of a single verification request.
+ * <p>
+ * Created once per request by the client entry points and handed down to every discovery step.
+ * Each step only uses the remaining budget, and fails with a {@link DeadlineExceededException} once it is used up.
+ * The default budget is configured via <code>verification_timeout</code> (in seconds).
+ */
+public class Deadline {
+    
+    private static final long DEFAULT_TIMEOUT = 30; // in seconds
+    private final long deadlineNanos;
+    
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+    
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+    
+    public static Deadline fromConfig() {
+        return Deadline.after(ATVConfiguration.get().getLong("verification_timeout", Deadline.DEFAULT_TIMEOUT), TimeUnit.SECONDS);
+    }
+    
+    /**
+     * @return the remaining budget, <code>0</code> if expired.
+     */
+    public long remaining(TimeUnit unit) {
+        long remainingNanos = this.deadlineNanos - System.nanoTime();
+        return remainingNanos > 0 ? unit.convert(remainingNanos, TimeUnit.NANOSECONDS) : 0;
+    }
+    
+    public long remainingMillis() {
+        return this.remaining(TimeUnit.MILLISECONDS);
+    }
+    
+    public boolean isExpired() {
+        return this.deadlineNanos - System.nanoTime() <= 0;
+    }
+    
+    /**
+     * @param step name of the step about to start, for the error message.
+     * @throws DeadlineExceededException if no budget is left.
+     */
+    public void check(String step) throws DeadlineExceededException {
+        if(this.isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before " + step + ".");
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + this.remainingMillis() + "ms}";
+    }
+}
@@ -1,10 +1,10 @@
-package com.train.gccn.model.report;
-
-import java.util.Observer;
-
-/**
- * Interface used to define custom observers for the ATV's {@link Report} mechanism.
- */
-public interface ReportObserver extends Observer {
-    
-}
+package com.train.gccn.model.report;
+
+import java.util.Observer;
+
+/**
+ * Interface used to define custom observers for the ATV's {@link Report} mechanism.
+ */
+public interface ReportObserver extends Observer {
+    
+}
@@ -1,12 +1,12 @@
-package com.train.gccn.model.report;
-
-/**
- * Status list for the ATV's {@link Report} mechanism.
- */
-public enum ReportStatus {
-    OK,
-    WARNING,
-    FAILED,
-    PRINT,
-    UNDEFINED
-}
+package com.train.gccn.model.report;
+
+/**
+ * Status list for the ATV's {@link Report} mechanism.
+ */
+public enum ReportStatus {
+    OK,
+    WARNING,
+    FAILED,
+    PRINT,
+    UNDEFINED
+}
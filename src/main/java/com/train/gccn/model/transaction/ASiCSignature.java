@@ -1,9 +1,9 @@
-package com.train.gccn.model.transaction;
-
-import java.security.cert.X509Certificate;
-
-public interface ASiCSignature {
-    
-    public X509Certificate getSigningX509Certificate();
-    
-}
+package com.train.gccn.model.transaction;
+
+import java.security.cert.X509Certificate;
+
+public interface ASiCSignature {
+    
+    public X509Certificate getSigningX509Certificate();
+    
+}
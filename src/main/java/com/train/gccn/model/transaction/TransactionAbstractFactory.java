@@ -1,7 +1,7 @@
-package com.train.gccn.model.transaction;
-
-public interface TransactionAbstractFactory {
-    
-    public TransactionContainer createTransaction();
-    
-}
+package com.train.gccn.model.transaction;
+
+public interface TransactionAbstractFactory {
+    
+    public TransactionContainer createTransaction();
+    
+}
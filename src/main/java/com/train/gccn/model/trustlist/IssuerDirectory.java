@@ -0,0 +1,251 @@
+package com.train.gccn.model.trustlist;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index over the current lists of all schemes in the {@link TrustListRegistry}: which schemes list a given
+ * issuer, by any provider name ({@link TSPRecord#getNames()}, legal and issuer name, {@link TrustListIndex#normalize(String)
+ * normalized}), entity identifier URI (normalized) or service certificate subject key identifier.
+ * <p>
+ * Each scheme has its own slice mapping keys to providers of its list. A published version is applied like
+ * {@link TrustListIndex#TrustListIndex(TrustListIndex, TrustListDiff)}: the slice is carried over from the previous
+ * version, only added and changed providers are read, and only keys of added, changed or removed providers are
+ * checked in the global key to schemes map. Schemes published before {@link #get()} was first called are indexed then.
+ */
+public class IssuerDirectory {
+
+    private static Logger logger = Logger.getLogger(IssuerDirectory.class);
+    private static IssuerDirectory instance = null;
+
+    private final Map<String, Slice> slices = new ConcurrentHashMap<>(); // scheme id -> slice of its current list
+    private final Map<String, Set<String>> schemesByKey = new ConcurrentHashMap<>(); // key -> scheme ids
+
+    private IssuerDirectory() {
+    }
+
+    public static synchronized IssuerDirectory get() {
+        if(IssuerDirectory.instance == null) {
+            IssuerDirectory directory = new IssuerDirectory();
+            // listen first, so no version published while catching up is missed
+            TrustListRegistry.addListener(directory::onTrustListChanged);
+            directory.sync();
+            IssuerDirectory.instance = directory;
+        }
+        return IssuerDirectory.instance;
+    }
+
+    /**
+     * Providers having <code>name</code> as one of their names, in all schemes.
+     */
+    public List<IssuerListing> findByName(String name) {
+        return name == null ? Collections.emptyList() : this.lookup("name:" + TrustListIndex.normalize(name));
+    }
+
+    public List<IssuerListing> findByEntityIdentifierURI(String uri) {
+        return uri == null ? Collections.emptyList() : this.lookup("uri:" + TrustListIndex.normalize(uri));
+    }
+
+    /**
+     * Providers with a service certificate having the given subject key identifier, in all schemes.
+     *
+     * @param ski hex, case, colons and whitespace are ignored.
+     */
+    public List<IssuerListing> findBySubjectKeyIdentifier(String ski) {
+        return ski == null ? Collections.emptyList()
+                : this.lookup("ski:" + ski.replaceAll("[\\s:]", "").toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Providers matching any of the given keys (each may be <code>null</code>), see the <code>findBy</code> methods.
+     *
+     * @return each provider once, by scheme identifier.
+     */
+    public List<IssuerListing> find(String name, String uri, String ski) {
+        Map<List<Object>, IssuerListing> listings = new LinkedHashMap<>(); // key: scheme id, ordinal
+        List<IssuerListing> matches = new ArrayList<>(this.findByName(name));
+        matches.addAll(this.findByEntityIdentifierURI(uri));
+        matches.addAll(this.findBySubjectKeyIdentifier(ski));
+        for(IssuerListing listing : matches) {
+            listings.putIfAbsent(Arrays.asList(listing.getSchemeId(), listing.getProvider().getOrdinal()), listing);
+        }
+        List<IssuerListing> result = new ArrayList<>(listings.values());
+        result.sort(Comparator.comparing(IssuerListing::getSchemeId));
+        return result;
+    }
+
+    /**
+     * @return the identifiers of the schemes listing the issuer, see {@link #find(String, String, String)}, sorted.
+     */
+    public Set<String> findSchemes(String name, String uri, String ski) {
+        Set<String> schemes = new TreeSet<>();
+        for(IssuerListing listing : this.find(name, uri, ski)) {
+            schemes.add(listing.getSchemeId());
+        }
+        return schemes;
+    }
+
+    /**
+     * @return the number of distinct keys over all schemes.
+     */
+    public int size() {
+        return this.schemesByKey.size();
+    }
+
+    private List<IssuerListing> lookup(String key) {
+        Set<String> schemes = this.schemesByKey.get(key);
+        if(schemes == null) {
+            return Collections.emptyList();
+        }
+
+        List<IssuerListing> listings = new ArrayList<>();
+        for(String schemeId : new TreeSet<>(schemes)) {
+            Slice slice = this.slices.get(schemeId);
+            int[] ordinals = slice == null ? null : slice.ordinals.get(key);
+            if(ordinals == null) {
+                continue; // being replaced
+            }
+            for(int ordinal : ordinals) {
+                listings.add(new IssuerListing(schemeId, slice.list.getProviders().get(ordinal)));
+            }
+        }
+        return listings;
+    }
+
+    /**
+     * Indexes the schemes whose current version is not indexed yet.
+     */
+    private synchronized void sync() {
+        for(String schemeId : TrustListRegistry.getSchemeIds()) {
+            TrustList list = TrustListRegistry.get(schemeId);
+            Slice slice = this.slices.get(schemeId);
+            if(list != null && (slice == null || slice.list != list)) {
+                this.replace(schemeId, new Slice(list), null);
+            }
+        }
+        IssuerDirectory.logger.info("Issuer directory: " + this.slices.size() + " scheme(s), "
+                + this.schemesByKey.size() + " key(s)");
+    }
+
+    private synchronized void onTrustListChanged(String schemeId, TrustListDiff diff) {
+        Slice previous = this.slices.get(schemeId);
+        if(previous != null && previous.list == diff.getCurrent()) {
+            return; // already indexed by sync()
+        }
+
+        long start = System.currentTimeMillis();
+        if(previous != null && previous.list == diff.getPrevious()) {
+            Set<String> touched = new HashSet<>();
+            for(TSPRecord provider : diff.getRemovedProviders()) {
+                touched.addAll(IssuerDirectory.keys(provider));
+            }
+            for(TrustListDiff.ProviderChange change : diff.getChangedProviders()) {
+                touched.addAll(IssuerDirectory.keys(change.getPrevious()));
+            }
+            this.replace(schemeId, new Slice(previous, diff), touched);
+        } else {
+            this.replace(schemeId, new Slice(diff.getCurrent()), null);
+        }
+        IssuerDirectory.logger.debug("Issuer directory updated for " + schemeId + ": " + diff + " in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Installs <code>slice</code> for <code>schemeId</code> and updates the key to schemes map.
+     *
+     * @param removed keys of providers no longer in the list as they were, or <code>null</code> to compare all keys
+     *                of the previous slice.
+     */
+    private void replace(String schemeId, Slice slice, Set<String> removed) {
+        Slice previous = this.slices.get(schemeId);
+        Set<String> added = removed == null ? slice.ordinals.keySet() : slice.updatedKeys;
+
+        for(String key : added) {
+            this.schemesByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(schemeId);
+        }
+        this.slices.put(schemeId, slice);
+
+        if(previous == null) {
+            return;
+        }
+        for(String key : removed == null ? previous.ordinals.keySet() : removed) {
+            if(!slice.ordinals.containsKey(key)) {
+                this.schemesByKey.computeIfPresent(key, (k, schemes) -> {
+                    schemes.remove(schemeId);
+                    return schemes.isEmpty() ? null : schemes;
+                });
+            }
+        }
+    }
+
+    /**
+     * @return the directory keys of <code>provider</code>, see {@link #lookup(String)}.
+     */
+    private static Set<String> keys(TSPRecord provider) {
+        Set<String> keys = new LinkedHashSet<>();
+        List<String> names = new ArrayList<>(provider.getNames());
+        names.add(provider.getLegalName());
+        names.add(provider.getIssuerName());
+        for(String name : names) {
+            if(name != null) {
+                keys.add("name:" + TrustListIndex.normalize(name));
+            }
+        }
+        if(provider.getEntityIdentifierURI() != null) {
+            keys.add("uri:" + TrustListIndex.normalize(provider.getEntityIdentifierURI()));
+        }
+        for(ServiceRecord service : provider.getServices()) {
+            String ski = service.getSubjectKeyIdentifier();
+            if(ski != null) {
+                keys.add("ski:" + ski);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Keys of one version of a scheme's list, with the ordinals of the providers having them.
+     */
+    private static class Slice {
+
+        private final TrustList list;
+        private final Map<String, int[]> ordinals;
+        private final Set<String> updatedKeys; // keys of added and changed providers, if derived from a previous slice
+
+        Slice(TrustList list) {
+            this.list = list;
+            this.ordinals = TrustListIndex.index(list.getProviders(), IssuerDirectory::keys, false);
+            this.updatedKeys = null;
+        }
+
+        Slice(Slice previous, TrustListDiff diff) {
+            List<TSPRecord> updated = new ArrayList<>(diff.getAddedProviders());
+            for(TrustListDiff.ProviderChange change : diff.getChangedProviders()) {
+                updated.add(change.getCurrent());
+            }
+            Map<TSPRecord, Set<String>> keys = new HashMap<>();
+            for(TSPRecord provider : updated) {
+                keys.put(provider, IssuerDirectory.keys(provider));
+            }
+
+            this.list = diff.getCurrent();
+            this.ordinals = TrustListIndex.update(previous.ordinals, diff.getUnchangedOrdinals(), updated, keys::get, false);
+            this.updatedKeys = new HashSet<>();
+            keys.values().forEach(this.updatedKeys::addAll);
+        }
+    }
+}
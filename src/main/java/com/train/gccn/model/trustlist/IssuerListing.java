@@ -0,0 +1,31 @@
+package com.train.gccn.model.trustlist;
+
+/**
+ * A provider listed by a trust scheme, as found by {@link IssuerDirectory}.
+ */
+public class IssuerListing {
+
+    private final String schemeId;
+    private final TSPRecord provider;
+
+    IssuerListing(String schemeId, TSPRecord provider) {
+        this.schemeId = schemeId;
+        this.provider = provider;
+    }
+
+    /**
+     * @return the identifier the scheme's list is published under in the {@link TrustListRegistry}.
+     */
+    public String getSchemeId() {
+        return this.schemeId;
+    }
+
+    public TSPRecord getProvider() {
+        return this.provider;
+    }
+
+    @Override
+    public String toString() {
+        return this.schemeId + ": " + this.provider;
+    }
+}
@@ -0,0 +1,45 @@
+package com.train.gccn.model.trustlist;
+
+import java.util.List;
+
+/**
+ * A name found by {@link NameSearchIndex}, with the providers carrying it.
+ */
+public class NameMatch {
+
+    private final String name;
+    private final List<TSPRecord> providers;
+    private final double score;
+
+    NameMatch(String name, List<TSPRecord> providers, double score) {
+        this.name = name;
+        this.providers = providers;
+        this.score = score;
+    }
+
+    /**
+     * @return the name as published (first occurrence of its normalized form).
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return the providers with this name, in document order.
+     */
+    public List<TSPRecord> getProviders() {
+        return this.providers;
+    }
+
+    /**
+     * @return similarity to the query, between 0 and 1.
+     */
+    public double getScore() {
+        return this.score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.2f)", this.name, this.score);
+    }
+}
@@ -0,0 +1,301 @@
+package com.train.gccn.model.trustlist;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Search index over all provider names of one {@link TrustList} (see {@link TSPRecord#getNames()}), for
+ * autocompletion and "did you mean" diagnostics; built on first use via {@link TrustList#getNameIndex()}.
+ * <p>
+ * Names are compared in {@link #normalize(String) normalized} form (case, diacritics and punctuation removed).
+ * Prefix lookups walk two radix (path-compressed) tries, one of the names and one holding every name from each of its
+ * later word starts, so <code>"telek"</code> finds <code>"Deutsche Telekom AG"</code>. Approximate lookups rank names by the Dice coefficient of their
+ * trigrams, read from an inverted trigram index.
+ */
+public class NameSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int[] NONE = new int[0];
+
+    private final List<TSPRecord> providers;
+    private final List<String> keys = new ArrayList<>(); // per entry: normalized name
+    private final List<String> names = new ArrayList<>(); // per entry: first original form of the normalized name
+    private final List<int[]> ordinals = new ArrayList<>(); // per entry: providers carrying the name, ascending
+    private final int[] gramCounts; // per entry: number of distinct trigrams
+    private final Map<String, int[]> grams; // trigram -> entries, ascending
+    private final Node starts = new Node(); // names
+    private final Node words = new Node(); // names from their second, third, ... word
+
+    NameSearchIndex(List<TSPRecord> providers) {
+        this.providers = providers;
+
+        Map<String, List<Integer>> entries = new LinkedHashMap<>();
+        Map<String, String> originals = new HashMap<>();
+        for(int i = 0; i < providers.size(); i++) {
+            for(String name : providers.get(i).getNames()) {
+                String key = NameSearchIndex.normalize(name);
+                if(key.isEmpty()) {
+                    continue;
+                }
+                originals.putIfAbsent(key, name);
+                List<Integer> carriers = entries.computeIfAbsent(key, k -> new ArrayList<>(1));
+                if(carriers.isEmpty() || carriers.get(carriers.size() - 1) != i) {
+                    carriers.add(i);
+                }
+            }
+        }
+
+        Map<String, List<Integer>> postings = new HashMap<>();
+        this.gramCounts = new int[entries.size()];
+        int entry = 0;
+        for(Map.Entry<String, List<Integer>> e : entries.entrySet()) {
+            String key = e.getKey();
+            this.keys.add(key);
+            this.names.add(originals.get(key));
+            this.ordinals.add(e.getValue().stream().mapToInt(Integer::intValue).toArray());
+
+            this.starts.insert(key, entry);
+            for(int space = key.indexOf(' '); space >= 0; space = key.indexOf(' ', space + 1)) {
+                this.words.insert(key.substring(space + 1), entry);
+            }
+
+            Set<String> keyGrams = NameSearchIndex.grams(key);
+            this.gramCounts[entry] = keyGrams.size();
+            for(String gram : keyGrams) {
+                postings.computeIfAbsent(gram, k -> new ArrayList<>()).add(entry);
+            }
+            entry++;
+        }
+
+        this.grams = new HashMap<>(postings.size() * 4 / 3 + 1);
+        for(Map.Entry<String, List<Integer>> e : postings.entrySet()) {
+            this.grams.put(e.getKey(), e.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    /**
+     * Search form of a name: compatibility decomposed, without diacritics, lower case, every run of characters other
+     * than letters and digits replaced by a single space, trimmed.
+     */
+    public static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        String plain = NameSearchIndex.MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NameSearchIndex.SEPARATORS.matcher(plain).replaceAll(" ").trim();
+    }
+
+    /**
+     * @return the number of distinct normalized names.
+     */
+    public int size() {
+        return this.names.size();
+    }
+
+    /**
+     * Names with a word starting with <code>prefix</code> (in normalized form): first the names starting with it, by
+     * name, then the names with a later word starting with it, by the name from that word on.
+     *
+     * @return at most <code>limit</code> matches, each with score 1.
+     */
+    public List<NameMatch> suggest(String prefix, int limit) {
+        String key = NameSearchIndex.normalize(prefix);
+        if(key.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        Set<Integer> collected = new LinkedHashSet<>();
+        for(Node trie : new Node[]{this.starts, this.words}) {
+            Node node = trie.find(key);
+            if(node != null && collected.size() < limit) {
+                node.collect(collected, limit);
+            }
+        }
+
+        List<NameMatch> matches = new ArrayList<>(collected.size());
+        for(int entry : collected) {
+            matches.add(this.match(entry, 1.0));
+        }
+        return matches;
+    }
+
+    /**
+     * Names similar to <code>name</code>, by trigram similarity (Dice coefficient, 1 for equal normalized names).
+     *
+     * @return at most <code>limit</code> matches with a score of at least <code>minScore</code>, best first.
+     */
+    public List<NameMatch> similar(String name, int limit, double minScore) {
+        Set<String> queryGrams = NameSearchIndex.grams(NameSearchIndex.normalize(name));
+        if(queryGrams.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        int[] common = new int[this.names.size()];
+        int[] touched = new int[this.names.size()];
+        int numTouched = 0;
+        for(String gram : queryGrams) {
+            for(int entry : this.grams.getOrDefault(gram, NameSearchIndex.NONE)) {
+                if(common[entry]++ == 0) {
+                    touched[numTouched++] = entry;
+                }
+            }
+        }
+
+        PriorityQueue<NameMatch> best = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.getScore(), b.getScore()));
+        for(int i = 0; i < numTouched; i++) {
+            int entry = touched[i];
+            double score = 2.0 * common[entry] / (queryGrams.size() + this.gramCounts[entry]);
+            if(score >= minScore && (best.size() < limit || score > best.peek().getScore())) {
+                best.add(this.match(entry, score));
+                if(best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<NameMatch> matches = new ArrayList<>(best);
+        matches.sort((a, b) -> a.getScore() != b.getScore() ? Double.compare(b.getScore(), a.getScore())
+                : a.getName().compareTo(b.getName()));
+        return matches;
+    }
+
+    private NameMatch match(int entry, double score) {
+        int[] carriers = this.ordinals.get(entry);
+        List<TSPRecord> matched = new ArrayList<>(carriers.length);
+        for(int ordinal : carriers) {
+            matched.add(this.providers.get(ordinal));
+        }
+        return new NameMatch(this.names.get(entry), matched, score);
+    }
+
+    /**
+     * @return the distinct trigrams of a normalized name, padded so that short names and word starts count.
+     */
+    private static Set<String> grams(String key) {
+        Set<String> grams = new LinkedHashSet<>();
+        if(key.isEmpty()) {
+            return grams;
+        }
+        String padded = "  " + key + " ";
+        for(int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Radix trie node: edges are labelled with strings, no two edges of a node share their first character. Edges are
+     * kept sorted, so collection visits names in lexicographic order.
+     */
+    private static class Node {
+
+        private char[] firsts = new char[0]; // first character of each edge label
+        private String[] labels = new String[0];
+        private Node[] children = new Node[0];
+        private int[] entries = NameSearchIndex.NONE; // names ending here, grown by doubling
+        private int numEntries = 0;
+
+        void insert(String key, int entry) {
+            Node node = this;
+            String rest = key;
+            while(!rest.isEmpty()) {
+                int i = Arrays.binarySearch(node.firsts, rest.charAt(0));
+                if(i < 0) {
+                    Node leaf = new Node();
+                    node.addEdge(-i - 1, rest, leaf);
+                    node = leaf;
+                    break;
+                }
+
+                String label = node.labels[i];
+                int common = 1;
+                while(common < label.length() && common < rest.length() && label.charAt(common) == rest.charAt(common)) {
+                    common++;
+                }
+                if(common < label.length()) {
+                    // split the edge at the end of the common part
+                    Node middle = new Node();
+                    middle.addEdge(0, label.substring(common), node.children[i]);
+                    node.labels[i] = label.substring(0, common);
+                    node.children[i] = middle;
+                }
+                node = node.children[i];
+                rest = rest.substring(common);
+            }
+
+            if(node.numEntries == 0 || node.entries[node.numEntries - 1] != entry) {
+                if(node.numEntries == node.entries.length) {
+                    node.entries = Arrays.copyOf(node.entries, Math.max(1, 2 * node.numEntries));
+                }
+                node.entries[node.numEntries++] = entry;
+            }
+        }
+
+        /**
+         * @return the node below which all keys starting with <code>prefix</code> are, or <code>null</code>.
+         */
+        Node find(String prefix) {
+            Node node = this;
+            String rest = prefix;
+            while(!rest.isEmpty()) {
+                int i = Arrays.binarySearch(node.firsts, rest.charAt(0));
+                if(i < 0) {
+                    return null;
+                }
+                String label = node.labels[i];
+                if(rest.length() <= label.length()) {
+                    return label.startsWith(rest) ? node.children[i] : null;
+                }
+                if(!rest.startsWith(label)) {
+                    return null;
+                }
+                node = node.children[i];
+                rest = rest.substring(label.length());
+            }
+            return node;
+        }
+
+        void collect(Set<Integer> result, int limit) {
+            for(int i = 0; i < this.numEntries; i++) {
+                if(result.size() >= limit) {
+                    return;
+                }
+                result.add(this.entries[i]);
+            }
+            for(Node child : this.children) {
+                if(result.size() >= limit) {
+                    return;
+                }
+                child.collect(result, limit);
+            }
+        }
+
+        private void addEdge(int i, String label, Node child) {
+            char[] firsts = new char[this.firsts.length + 1];
+            String[] labels = new String[this.labels.length + 1];
+            Node[] children = new Node[this.children.length + 1];
+            System.arraycopy(this.firsts, 0, firsts, 0, i);
+            System.arraycopy(this.labels, 0, labels, 0, i);
+            System.arraycopy(this.children, 0, children, 0, i);
+            System.arraycopy(this.firsts, i, firsts, i + 1, this.firsts.length - i);
+            System.arraycopy(this.labels, i, labels, i + 1, this.labels.length - i);
+            System.arraycopy(this.children, i, children, i + 1, this.children.length - i);
+            firsts[i] = label.charAt(0);
+            labels[i] = label;
+            children[i] = child;
+            this.firsts = firsts;
+            this.labels = labels;
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.train.gccn.model.trustlist;
+
+import com.train.gccn.ATVConfiguration;
+import org.apache.log4j.Logger;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel variant of {@link TrustListParser} for very large (e.g. aggregated) lists.
+ * <p>
+ * A quick structural scan finds the offsets of all <code>TrustServiceProvider</code> elements. The providers are
+ * split into chunks, which are parsed on the common fork-join pool and merged in document order. The rest of the
+ * document, with the providers cut out, is parsed to its end as well, so both parsers accept the same documents.
+ * Lists with less than <code>parallel_parse_min_providers</code> providers are parsed sequentially.
+ */
+public class ParallelTrustListParser {
+
+    private static final String ELEMENT_PROVIDER = "TrustServiceProvider";
+    private static final String CHUNK_START = "<TrustServiceProviderList";
+    private static final String CHUNK_END = "</TrustServiceProviderList>";
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static Logger logger = Logger.getLogger(ParallelTrustListParser.class);
+
+    private ParallelTrustListParser() {
+        // static class
+    }
+
+    public static TrustList parse(String xml) throws XMLStreamException {
+        int minProviders = ATVConfiguration.get().getInt("parallel_parse_min_providers", 2000);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        int[] bounds = ParallelTrustListParser.scan(xml);
+        int numProviders = bounds.length / 2;
+        if(numProviders < minProviders || pool.getParallelism() < 2) {
+            return TrustListParser.parse(xml);
+        }
+
+        long start = System.currentTimeMillis();
+        TrustListParser header = TrustListParser.parseSkeleton(ParallelTrustListParser.skeleton(xml, bounds));
+        String chunkStart = ParallelTrustListParser.chunkStart(header.getProviderListNamespaces());
+        int chunkSize = Math.max(1, numProviders / (pool.getParallelism() * ParallelTrustListParser.CHUNKS_PER_THREAD));
+        TrustListStore.Builder providers;
+        try {
+            providers = pool.invoke(new ChunkTask(xml, bounds, chunkStart, 0, numProviders, chunkSize));
+        } catch(RuntimeException e) {
+            for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if(cause instanceof XMLStreamException) {
+                    throw (XMLStreamException) cause;
+                }
+            }
+            throw e;
+        }
+
+        TrustList list = header.toTrustList(providers.build());
+        ParallelTrustListParser.logger.info("Parsed " + list + " in " + (System.currentTimeMillis() - start) + "ms on "
+                + pool.getParallelism() + " thread(s), chunks of " + chunkSize);
+        return list;
+    }
+
+    /**
+     * @return start and end offset of each <code>TrustServiceProvider</code> element, in document order.
+     */
+    static int[] scan(String xml) {
+        int[] bounds = new int[64];
+        int numBounds = 0;
+        int open = -1;
+        int n = xml.length();
+
+        int i = xml.indexOf('<');
+        while(i >= 0 && i + 1 < n) {
+            if(xml.startsWith("<!--", i)) {
+                i = ParallelTrustListParser.skipPast(xml, i, "-->");
+                continue;
+            } else if(xml.startsWith("<![CDATA[", i)) {
+                i = ParallelTrustListParser.skipPast(xml, i, "]]>");
+                continue;
+            } else if(xml.charAt(i + 1) == '?' || xml.charAt(i + 1) == '!') {
+                i = ParallelTrustListParser.skipPast(xml, i, ">");
+                continue;
+            }
+
+            boolean endTag = xml.charAt(i + 1) == '/';
+            int nameStart = endTag ? i + 2 : i + 1;
+            int nameEnd = nameStart;
+            while(nameEnd < n && !ParallelTrustListParser.isNameEnd(xml.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            int tagEnd = ParallelTrustListParser.findTagEnd(xml, nameEnd);
+            if(tagEnd < 0) {
+                break;
+            }
+
+            if(ParallelTrustListParser.isProvider(xml, nameStart, nameEnd)) {
+                int end = -1;
+                if(endTag && open >= 0) {
+                    end = tagEnd + 1;
+                } else if(!endTag && xml.charAt(tagEnd - 1) == '/') {
+                    open = i;
+                    end = tagEnd + 1;
+                } else if(!endTag) {
+                    open = i;
+                }
+                if(end >= 0) {
+                    if(numBounds + 2 > bounds.length) {
+                        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                    }
+                    bounds[numBounds++] = open;
+                    bounds[numBounds++] = end;
+                    open = -1;
+                }
+            }
+
+            i = xml.indexOf('<', tagEnd + 1);
+        }
+
+        return Arrays.copyOf(bounds, numBounds);
+    }
+
+    /**
+     * @return <code>xml</code> without the elements at <code>bounds</code>.
+     */
+    static String skeleton(String xml, int[] bounds) {
+        StringBuilder skeleton = new StringBuilder();
+        int from = 0;
+        for(int i = 0; i < bounds.length; i += 2) {
+            skeleton.append(xml, from, bounds[i]);
+            from = bounds[i + 1];
+        }
+        return skeleton.append(xml, from, xml.length()).toString();
+    }
+
+    /**
+     * @return start tag of the <code>TrustServiceProviderList</code> wrapping a chunk, declaring <code>namespaces</code>.
+     */
+    private static String chunkStart(Map<String, String> namespaces) {
+        StringBuilder tag = new StringBuilder(ParallelTrustListParser.CHUNK_START);
+        for(Map.Entry<String, String> namespace : namespaces.entrySet()) {
+            if(namespace.getKey().isEmpty()) {
+                tag.append(" xmlns=\"");
+            } else if(namespace.getValue().isEmpty()) {
+                continue; // undeclared prefix, must not be used by the providers either
+            } else {
+                tag.append(" xmlns:").append(namespace.getKey()).append("=\"");
+            }
+            String uri = namespace.getValue();
+            for(int i = 0; i < uri.length(); i++) {
+                char c = uri.charAt(i);
+                if(c == '&') {
+                    tag.append("&amp;");
+                } else if(c == '<') {
+                    tag.append("&lt;");
+                } else if(c == '"') {
+                    tag.append("&quot;");
+                } else {
+                    tag.append(c);
+                }
+            }
+            tag.append('"');
+        }
+        return tag.append('>').toString();
+    }
+
+    /**
+     * @return offset of the next tag after <code>terminator</code>, or -1.
+     */
+    private static int skipPast(String xml, int from, String terminator) {
+        int end = xml.indexOf(terminator, from);
+        return end < 0 ? -1 : xml.indexOf('<', end + terminator.length());
+    }
+
+    private static boolean isNameEnd(char c) {
+        return c == '>' || c == '/' || Character.isWhitespace(c);
+    }
+
+    private static boolean isProvider(String xml, int nameStart, int nameEnd) {
+        int length = ParallelTrustListParser.ELEMENT_PROVIDER.length();
+        int localStart = nameEnd - length;
+        return localStart >= nameStart
+                && (localStart == nameStart || xml.charAt(localStart - 1) == ':')
+                && xml.regionMatches(localStart, ParallelTrustListParser.ELEMENT_PROVIDER, 0, length);
+    }
+
+    /**
+     * @return offset of the <code>&gt;</code> closing the tag, skipping quoted attribute values.
+     */
+    private static int findTagEnd(String xml, int from) {
+        char quote = 0;
+        for(int i = from; i < xml.length(); i++) {
+            char c = xml.charAt(i);
+            if(quote != 0) {
+                if(c == quote) {
+                    quote = 0;
+                }
+            } else if(c == '"' || c == '\'') {
+                quote = c;
+            } else if(c == '>') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static class ChunkTask extends RecursiveTask<TrustListStore.Builder> {
+
+        private final String xml;
+        private final int[] bounds;
+        private final String chunkStart;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ChunkTask(String xml, int[] bounds, String chunkStart, int from, int to, int chunkSize) {
+            this.xml = xml;
+            this.bounds = bounds;
+            this.chunkStart = chunkStart;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected TrustListStore.Builder compute() {
+            if(this.to - this.from <= this.chunkSize) {
+                String chunk = this.chunkStart
+                        + this.xml.substring(this.bounds[2 * this.from], this.bounds[2 * this.to - 1])
+                        + ParallelTrustListParser.CHUNK_END;
+                try {
+                    return TrustListParser.parseProviders(chunk);
+                } catch(XMLStreamException e) {
+                    throw new IllegalStateException("Could not parse providers " + this.from + " to " + this.to, e);
+                }
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            ChunkTask left = new ChunkTask(this.xml, this.bounds, this.chunkStart, this.from, middle, this.chunkSize);
+            ChunkTask right = new ChunkTask(this.xml, this.bounds, this.chunkStart, middle, this.to, this.chunkSize);
+            right.fork();
+            TrustListStore.Builder result = left.compute();
+            result.append(right.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.train.gccn.model.trustlist;
+
+import com.google.common.io.BaseEncoding;
+
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A single <code>TSPService</code> of a {@link TSPRecord}, as read by {@link TrustListParser}.
+ * <p>
+ * Immutable view onto a row of the list's {@link TrustListStore}.
+ * Values are the text of the first matching element, <code>null</code> if missing or blank.
+ * The certificate is decoded on first use.
+ */
+public class ServiceRecord {
+
+    private final TrustListStore store;
+    private final int ordinal;
+
+    ServiceRecord(TrustListStore store, int ordinal) {
+        this.store = store;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * @return first <code>ServiceInformation/ServiceName/Name</code>.
+     */
+    public String getServiceName() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_NAME);
+    }
+
+    public String getServiceStatus() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_STATUS);
+    }
+
+    public String getServiceTypeIdentifier() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_TYPE_IDENTIFIER);
+    }
+
+    public String getSchemeServiceDefinition() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_SCHEME_DEFINITION);
+    }
+
+    public String getServiceSupplyPoint() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_SUPPLY_POINT);
+    }
+
+    public String getServiceDefinitionURI() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_DEFINITION_URI);
+    }
+
+    public String getServiceGovernanceURI() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_GOVERNANCE_URI);
+    }
+
+    /**
+     * @return the base64 encoded X509 certificate of the service.
+     */
+    public String getServiceDigitalId() {
+        return this.store.getServiceField(this.ordinal, TrustListStore.SERVICE_DIGITAL_ID);
+    }
+
+    String getField(int field) {
+        return this.store.getServiceField(this.ordinal, field);
+    }
+
+    /**
+     * @return the decoded {@link #getServiceDigitalId()}, or <code>null</code> if missing or invalid.
+     */
+    public X509Certificate getCertificate() {
+        return this.store.getCertificate(this.ordinal);
+    }
+
+    /**
+     * @return the subject key identifier extension of {@link #getCertificate()} as lower case hex, or
+     * <code>null</code> if there is none.
+     */
+    public String getSubjectKeyIdentifier() {
+        X509Certificate cert = this.getCertificate();
+        if(cert == null) {
+            return null;
+        }
+        // extension value: OCTET STRING containing the KeyIdentifier OCTET STRING
+        byte[] keyIdentifier = ServiceRecord.octetString(ServiceRecord.octetString(cert.getExtensionValue("2.5.29.14")));
+        return keyIdentifier == null || keyIdentifier.length == 0 ? null : BaseEncoding.base16().lowerCase().encode(keyIdentifier);
+    }
+
+    /**
+     * @return the content of a DER encoded OCTET STRING, or <code>null</code> if <code>der</code> is none.
+     */
+    private static byte[] octetString(byte[] der) {
+        if(der == null || der.length < 2 || der[0] != 0x04) {
+            return null;
+        }
+        int length = der[1] & 0xff;
+        int offset = 2;
+        if(length > 0x7f) {
+            int numBytes = length & 0x7f;
+            if(numBytes > 3 || offset + numBytes > der.length) {
+                return null;
+            }
+            length = 0;
+            for(int i = 0; i < numBytes; i++) {
+                length = (length << 8) | (der[offset++] & 0xff);
+            }
+        }
+        return offset + length > der.length ? null : Arrays.copyOfRange(der, offset, offset + length);
+    }
+
+    /**
+     * @return all <code>AdditionalServiceInformation/URI</code> of the service information extensions.
+     */
+    public List<String> getAdditionalServiceInfoURIs() {
+        return this.store.getServiceInfoURIs(this.ordinal);
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceRecord{" + this.getServiceTypeIdentifier() + ", " + this.getServiceSupplyPoint() + "}";
+    }
+}
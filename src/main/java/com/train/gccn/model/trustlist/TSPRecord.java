@@ -0,0 +1,112 @@
+package com.train.gccn.model.trustlist;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A single <code>TrustServiceProvider</code> of a {@link TrustList}, as read by {@link TrustListParser}.
+ * <p>
+ * Immutable view onto a row of the list's {@link TrustListStore}.
+ * Values are the text of the first matching element, <code>null</code> if missing or blank.
+ */
+public class TSPRecord {
+
+    private final TrustListStore store;
+    private final int ordinal;
+
+    TSPRecord(TrustListStore store, int ordinal) {
+        this.store = store;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * @return position of the provider in its list.
+     */
+    public int getOrdinal() {
+        return this.ordinal;
+    }
+
+    /**
+     * @return the English <code>TSPInformation/TSPName/Name</code>, else the first one (as DSS does).
+     */
+    public String getName() {
+        return this.store.getProviderField(this.ordinal, TrustListStore.PROVIDER_NAME);
+    }
+
+    /**
+     * @return first <code>TSPInformation/TSPLegalName/Name</code>.
+     */
+    public String getLegalName() {
+        return this.store.getProviderField(this.ordinal, TrustListStore.PROVIDER_LEGAL_NAME);
+    }
+
+    /**
+     * @return first <code>TSPInformation/IssuerName/Name</code>.
+     */
+    public String getIssuerName() {
+        return this.store.getProviderField(this.ordinal, TrustListStore.PROVIDER_ISSUER_NAME);
+    }
+
+    /**
+     * @return first <code>TSPInformation/TrustSchemeName/Name</code>.
+     */
+    public String getTrustSchemeName() {
+        return this.store.getProviderField(this.ordinal, TrustListStore.PROVIDER_TRUST_SCHEME_NAME);
+    }
+
+    /**
+     * @return first <code>TSPInformation/TSPEntityIdentifierList/TSPEntityIdentifier/TSPEntityIdentifierURI</code>.
+     */
+    public String getEntityIdentifierURI() {
+        return this.store.getProviderField(this.ordinal, TrustListStore.PROVIDER_ENTITY_IDENTIFIER_URI);
+    }
+
+    /**
+     * @return first <code>TSPInformation/TSPQualifierList/TSPQualifier/QualifierURI</code>.
+     */
+    public String getQualifierURI() {
+        return this.store.getProviderField(this.ordinal, TrustListStore.PROVIDER_QUALIFIER_URI);
+    }
+
+    /**
+     * @return first <code>TSPInformation/TSPAddress/PostalAddresses/PostalAddress/CountryName</code> (usually an
+     * ISO 3166-1 alpha-2 code).
+     */
+    public String getCountryName() {
+        return this.store.getProviderField(this.ordinal, TrustListStore.PROVIDER_COUNTRY_NAME);
+    }
+
+    /**
+     * @return all distinct <code>Name</code>s of <code>TSPName</code>, <code>TSPLegalName</code>,
+     * <code>TSPTradeName</code> and <code>IssuerName</code> (in all languages), in document order.
+     */
+    public List<String> getNames() {
+        return this.store.getProviderNames(this.ordinal);
+    }
+
+    String getField(int field) {
+        return this.store.getProviderField(this.ordinal, field);
+    }
+
+    public List<ServiceRecord> getServices() {
+        return this.store.getServices(this.ordinal);
+    }
+
+    /**
+     * @return the first non-null value of <code>field</code> over all services (in document order), or <code>null</code>.
+     */
+    public String getServiceValue(Function<ServiceRecord, String> field) {
+        for(ServiceRecord service : this.getServices()) {
+            String value = field.apply(service);
+            if(value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "TSPRecord{" + this.getLegalName() + ", " + this.getServices().size() + " service(s)}";
+    }
+}
@@ -0,0 +1,194 @@
+package com.train.gccn.model.trustlist;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Scheme information and providers of a Trust Status List (ETSI TS 119 612), as read by {@link TrustListParser}.
+ * <p>
+ * Immutable. Header values are <code>null</code> if missing or blank.
+ * The lookup and name search indexes are built on first use.
+ */
+public class TrustList {
+
+    private final String sequenceNumber;
+    private final String schemeOperatorName;
+    private final String schemeTerritory;
+    private final String listIssueDateTime;
+    private final String nextUpdate;
+    private final TrustListStore store;
+    private volatile TrustListIndex index;
+    private volatile NameSearchIndex nameIndex;
+    private String digest; // set once by TrustListCache before the list is shared
+
+    TrustList(String sequenceNumber, String schemeOperatorName, String schemeTerritory, String listIssueDateTime,
+              String nextUpdate, TrustListStore store) {
+        this.sequenceNumber = sequenceNumber;
+        this.schemeOperatorName = schemeOperatorName;
+        this.schemeTerritory = schemeTerritory;
+        this.listIssueDateTime = listIssueDateTime;
+        this.nextUpdate = nextUpdate;
+        this.store = store;
+    }
+
+    /**
+     * @return <code>SchemeInformation/TSLSequenceNumber</code>.
+     */
+    public String getSequenceNumber() {
+        return this.sequenceNumber;
+    }
+
+    /**
+     * @return first <code>SchemeInformation/SchemeOperatorName/Name</code>.
+     */
+    public String getSchemeOperatorName() {
+        return this.schemeOperatorName;
+    }
+
+    public String getSchemeTerritory() {
+        return this.schemeTerritory;
+    }
+
+    public String getListIssueDateTime() {
+        return this.listIssueDateTime;
+    }
+
+    /**
+     * @return <code>SchemeInformation/NextUpdate/dateTime</code>.
+     */
+    public String getNextUpdate() {
+        return this.nextUpdate;
+    }
+
+    /**
+     * @return SHA-256 of the list content (identifies this version of the list), or <code>null</code> if the list
+     * was not loaded via {@link TrustListCache}.
+     */
+    public String getDigest() {
+        return this.digest;
+    }
+
+    void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    /**
+     * @return all <code>TrustServiceProviderList/TrustServiceProvider</code>, in document order.
+     */
+    public List<TSPRecord> getProviders() {
+        return this.store.getProviders();
+    }
+
+    public TrustListIndex getIndex() {
+        TrustListIndex index = this.index;
+        if(index == null) {
+            synchronized(this) {
+                index = this.index;
+                if(index == null) {
+                    index = new TrustListIndex(this.getProviders());
+                    this.index = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    public NameSearchIndex getNameIndex() {
+        NameSearchIndex nameIndex = this.nameIndex;
+        if(nameIndex == null) {
+            synchronized(this) {
+                nameIndex = this.nameIndex;
+                if(nameIndex == null) {
+                    nameIndex = new NameSearchIndex(this.getProviders());
+                    this.nameIndex = nameIndex;
+                }
+            }
+        }
+        return nameIndex;
+    }
+
+    /**
+     * @return one page of the providers matching <code>query</code>, served from the lookup index.
+     * @throws IllegalArgumentException if the cursor is invalid or belongs to another version of the list.
+     */
+    public TrustListPage query(TrustListQuery query) {
+        int[] matches = this.getIndex().select(query);
+
+        int start = 0;
+        if(query.getCursor() != null) {
+            int after = this.decodeCursor(query.getCursor());
+            start = Arrays.binarySearch(matches, after);
+            start = start < 0 ? -start - 1 : start + 1;
+        }
+        int end = (int) Math.min(matches.length, (long) start + query.getLimit());
+
+        List<TSPRecord> providers = this.getProviders();
+        List<TSPRecord> page = new ArrayList<>(Math.max(0, end - start));
+        for(int i = start; i < end; i++) {
+            page.add(providers.get(matches[i]));
+        }
+        String nextCursor = end < matches.length ? this.encodeCursor(matches[end - 1]) : null;
+        return new TrustListPage(page, matches.length, nextCursor);
+    }
+
+    /**
+     * @return the version of this list in cursors: a prefix of the digest, else the sequence number.
+     */
+    private String getCursorVersion() {
+        return this.digest != null ? this.digest.substring(0, 16) : "#" + this.sequenceNumber;
+    }
+
+    private String encodeCursor(int ordinal) {
+        String cursor = this.getCursorVersion() + ":" + ordinal;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int decodeCursor(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch(IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        int separator = decoded.lastIndexOf(':');
+        if(separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if(!decoded.substring(0, separator).equals(this.getCursorVersion())) {
+            throw new IllegalArgumentException("Cursor belongs to another version of the trust list");
+        }
+        try {
+            return Integer.parseInt(decoded.substring(separator + 1));
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    TrustListStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * @return the index if already built, else <code>null</code>.
+     */
+    TrustListIndex peekIndex() {
+        return this.index;
+    }
+
+    /**
+     * Uses <code>index</code> (e.g. derived from a previous version) unless an index was already built.
+     */
+    synchronized void initIndex(TrustListIndex index) {
+        if(this.index == null) {
+            this.index = index;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TrustList{#" + this.sequenceNumber + ", " + this.getProviders().size() + " provider(s)}";
+    }
+}
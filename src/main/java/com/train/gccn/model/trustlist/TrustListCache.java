@@ -0,0 +1,57 @@
+package com.train.gccn.model.trustlist;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.train.gccn.ATVConfiguration;
+import org.apache.log4j.Logger;
+
+import javax.xml.stream.XMLStreamException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Parsed {@link TrustList}s by SHA-256 of their content, so each version of a list is parsed once
+ * and shared by all consumers (see {@link com.train.gccn.model.trustscheme.TrustScheme#getTrustList()}).
+ * <p>
+ * The number of cached lists is configured via <code>trustlist_cache_size</code>.
+ * Lists not in memory are loaded from their {@link TrustListFile} if there is one, else parsed and stored.
+ */
+public class TrustListCache {
+
+    private static Logger logger = Logger.getLogger(TrustListCache.class);
+    private static final Cache<String, TrustList> lists = CacheBuilder.newBuilder()
+            .maximumSize(ATVConfiguration.get().getLong("trustlist_cache_size", 64))
+            .build();
+
+    private TrustListCache() {
+        // static class
+    }
+
+    /**
+     * @return the parsed list; concurrent callers with the same content wait for a single parse.
+     */
+    public static TrustList get(String content) throws XMLStreamException {
+        String digest = Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+        try {
+            return TrustListCache.lists.get(digest, () -> {
+                TrustList list = TrustListFile.load(digest);
+                if(list == null) {
+                    TrustListCache.logger.info("Parsing trust list " + digest + " ...");
+                    list = ParallelTrustListParser.parse(content);
+                    TrustListFile.store(digest, list);
+                }
+                list.setDigest(digest);
+                return list;
+            });
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof XMLStreamException) {
+                throw (XMLStreamException) e.getCause();
+            }
+            throw new XMLStreamException(e.getCause());
+        } catch(UncheckedExecutionException e) {
+            throw new XMLStreamException(e.getCause());
+        }
+    }
+}
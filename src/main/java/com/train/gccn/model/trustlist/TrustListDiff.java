@@ -0,0 +1,223 @@
+package com.train.gccn.model.trustlist;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differences between two versions of a {@link TrustList}.
+ * <p>
+ * Providers are matched by entity identifier URI, or by legal name if they have none; services within a provider by
+ * certificate, or by type and name. A matched provider counts as changed if any of its values or services differ.
+ */
+public class TrustListDiff {
+
+    private final TrustList previous;
+    private final TrustList current;
+    private final List<TSPRecord> addedProviders = new ArrayList<>();
+    private final List<TSPRecord> removedProviders = new ArrayList<>();
+    private final List<ProviderChange> changedProviders = new ArrayList<>();
+    private final int[] ordinals; // ordinal in current of each unchanged provider of previous, -1 otherwise
+
+    private TrustListDiff(TrustList previous, TrustList current) {
+        this.previous = previous;
+        this.current = current;
+        this.ordinals = new int[previous == null ? 0 : previous.getProviders().size()];
+        Arrays.fill(this.ordinals, -1);
+    }
+
+    /**
+     * @param previous the replaced version, or <code>null</code> if there is none (all providers are added).
+     */
+    public static TrustListDiff compute(TrustList previous, TrustList current) {
+        TrustListDiff diff = new TrustListDiff(previous, current);
+        if(previous == null) {
+            diff.addedProviders.addAll(current.getProviders());
+            return diff;
+        }
+
+        Map<String, TSPRecord> previousByKey = TrustListDiff.byKey(previous.getProviders());
+        Map<String, TSPRecord> currentByKey = TrustListDiff.byKey(current.getProviders());
+
+        for(Map.Entry<String, TSPRecord> entry : currentByKey.entrySet()) {
+            TSPRecord provider = entry.getValue();
+            TSPRecord previousProvider = previousByKey.remove(entry.getKey());
+            if(previousProvider == null) {
+                diff.addedProviders.add(provider);
+            } else if(TrustListDiff.fingerprint(previousProvider).equals(TrustListDiff.fingerprint(provider))) {
+                diff.ordinals[previousProvider.getOrdinal()] = provider.getOrdinal();
+            } else {
+                diff.changedProviders.add(new ProviderChange(previousProvider, provider));
+            }
+        }
+        diff.removedProviders.addAll(previousByKey.values());
+
+        return diff;
+    }
+
+    /**
+     * @return providers by key, in document order; repeated keys are numbered.
+     */
+    private static Map<String, TSPRecord> byKey(List<TSPRecord> providers) {
+        Map<String, TSPRecord> byKey = new LinkedHashMap<>(providers.size() * 4 / 3 + 1);
+        for(TSPRecord provider : providers) {
+            String key = provider.getEntityIdentifierURI() != null
+                    ? "uri:" + provider.getEntityIdentifierURI()
+                    : "name:" + provider.getLegalName();
+            String uniqueKey = key;
+            for(int i = 2; byKey.containsKey(uniqueKey); i++) {
+                uniqueKey = key + "#" + i;
+            }
+            byKey.put(uniqueKey, provider);
+        }
+        return byKey;
+    }
+
+    private static HashCode fingerprint(TSPRecord provider) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for(int field = 0; field < TrustListStore.PROVIDER_FIELDS; field++) {
+            TrustListDiff.put(hasher, provider.getField(field));
+        }
+        for(String name : provider.getNames()) {
+            TrustListDiff.put(hasher, name);
+        }
+        for(ServiceRecord service : provider.getServices()) {
+            hasher.putLong(TrustListDiff.fingerprint(service).asLong());
+        }
+        return hasher.hash();
+    }
+
+    private static HashCode fingerprint(ServiceRecord service) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for(int field = 0; field < TrustListStore.SERVICE_FIELDS; field++) {
+            TrustListDiff.put(hasher, service.getField(field));
+        }
+        for(String uri : service.getAdditionalServiceInfoURIs()) {
+            TrustListDiff.put(hasher, uri);
+        }
+        return hasher.hash();
+    }
+
+    private static void put(Hasher hasher, String value) {
+        if(value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String serviceKey(ServiceRecord service) {
+        return service.getServiceDigitalId() != null
+                ? "cert:" + service.getServiceDigitalId().replaceAll("\\s", "")
+                : "type:" + service.getServiceTypeIdentifier() + "|" + service.getServiceName();
+    }
+
+    /**
+     * @return the replaced version, or <code>null</code>.
+     */
+    public TrustList getPrevious() {
+        return this.previous;
+    }
+
+    public TrustList getCurrent() {
+        return this.current;
+    }
+
+    /**
+     * @return new providers (of {@link #getCurrent()}).
+     */
+    public List<TSPRecord> getAddedProviders() {
+        return Collections.unmodifiableList(this.addedProviders);
+    }
+
+    /**
+     * @return dropped providers (of {@link #getPrevious()}).
+     */
+    public List<TSPRecord> getRemovedProviders() {
+        return Collections.unmodifiableList(this.removedProviders);
+    }
+
+    public List<ProviderChange> getChangedProviders() {
+        return Collections.unmodifiableList(this.changedProviders);
+    }
+
+    public boolean isEmpty() {
+        return this.addedProviders.isEmpty() && this.removedProviders.isEmpty() && this.changedProviders.isEmpty();
+    }
+
+    /**
+     * @return for each provider of {@link #getPrevious()}: its ordinal in {@link #getCurrent()} if unchanged, else -1.
+     */
+    int[] getUnchangedOrdinals() {
+        return this.ordinals;
+    }
+
+    @Override
+    public String toString() {
+        return "TrustListDiff{+" + this.addedProviders.size() + " -" + this.removedProviders.size()
+                + " ~" + this.changedProviders.size() + "}";
+    }
+
+    /**
+     * A provider present in both versions, with different values or services.
+     */
+    public static class ProviderChange {
+
+        private final TSPRecord previous;
+        private final TSPRecord current;
+        private final List<ServiceRecord> addedServices = new ArrayList<>();
+        private final List<ServiceRecord> removedServices = new ArrayList<>();
+        private final List<ServiceRecord> changedServices = new ArrayList<>();
+
+        ProviderChange(TSPRecord previous, TSPRecord current) {
+            this.previous = previous;
+            this.current = current;
+
+            Map<String, ServiceRecord> previousServices = new HashMap<>();
+            for(ServiceRecord service : previous.getServices()) {
+                previousServices.putIfAbsent(TrustListDiff.serviceKey(service), service);
+            }
+            for(ServiceRecord service : current.getServices()) {
+                ServiceRecord previousService = previousServices.remove(TrustListDiff.serviceKey(service));
+                if(previousService == null) {
+                    this.addedServices.add(service);
+                } else if(!TrustListDiff.fingerprint(previousService).equals(TrustListDiff.fingerprint(service))) {
+                    this.changedServices.add(service);
+                }
+            }
+            this.removedServices.addAll(previousServices.values());
+        }
+
+        public TSPRecord getPrevious() {
+            return this.previous;
+        }
+
+        public TSPRecord getCurrent() {
+            return this.current;
+        }
+
+        public List<ServiceRecord> getAddedServices() {
+            return Collections.unmodifiableList(this.addedServices);
+        }
+
+        public List<ServiceRecord> getRemovedServices() {
+            return Collections.unmodifiableList(this.removedServices);
+        }
+
+        /**
+         * @return changed services (of the current version).
+         */
+        public List<ServiceRecord> getChangedServices() {
+            return Collections.unmodifiableList(this.changedServices);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.train.gccn.model.trustlist;
+
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.wrapper.TrustSnapshot;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary form of a parsed and indexed {@link TrustList}, so a list seen before is loaded without XML parsing.
+ * <p>
+ * Files are named by the SHA-256 of the list content and kept in <code>trustlist_index_dir</code>, or (if not set)
+ * in the <code>index</code> directory of the recording or offline {@link TrustSnapshot}, next to the recorded lists.
+ * They are read through a memory-mapped {@link FileChannel}; files of another format version are ignored and
+ * replaced.
+ * <p>
+ * Layout (big endian):
+ * <pre>
+ * magic      int     'TLIX'
+ * version    int     {@link #VERSION}
+ * digest     string  SHA-256 of the list content
+ * header     string  sequence number, scheme operator name, scheme territory, list issue date time, next update
+ * store      see TrustListStore#write
+ * index      see TrustListIndex#write
+ * </pre>
+ * Strings are written as UTF-8 byte length (-1 for <code>null</code>) followed by the bytes.
+ */
+public class TrustListFile {
+
+    static final int VERSION = 4;
+    private static final int MAGIC = 0x544C4958;
+    private static final String SUFFIX = ".tlx";
+    private static Logger logger = Logger.getLogger(TrustListFile.class);
+
+    private TrustListFile() {
+        // static class
+    }
+
+    /**
+     * @return the directory for list files, or <code>null</code> if disabled.
+     */
+    static File getDirectory() {
+        String dir = ATVConfiguration.get().getString("trustlist_index_dir", null);
+        if(dir != null) {
+            return new File(dir);
+        }
+        TrustSnapshot snapshot = TrustSnapshot.getRecorder();
+        if(snapshot == null) {
+            snapshot = TrustSnapshot.getOffline();
+        }
+        return snapshot == null ? null : new File(snapshot.getDirectory(), "index");
+    }
+
+    /**
+     * @return the stored list with content hash <code>digest</code>, or <code>null</code> if there is no valid file.
+     */
+    static TrustList load(String digest) {
+        File directory = TrustListFile.getDirectory();
+        if(directory == null) {
+            return null;
+        }
+        Path path = directory.toPath().resolve(digest + TrustListFile.SUFFIX);
+        if(!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            TrustList list = TrustListFile.read(path, digest);
+            TrustListFile.logger.info("Loaded " + list + " from " + path + " in " + (System.currentTimeMillis() - start) + "ms");
+            return list;
+        } catch(IOException | RuntimeException e) {
+            TrustListFile.logger.warn("Ignoring invalid trust list file " + path + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes <code>list</code> (building its index) if list files are enabled. Failures are logged only.
+     */
+    static void store(String digest, TrustList list) {
+        File directory = TrustListFile.getDirectory();
+        if(directory == null) {
+            return;
+        }
+        Path path = directory.toPath().resolve(digest + TrustListFile.SUFFIX);
+        try {
+            TrustListFile.write(path, digest, list);
+            TrustListFile.logger.info("Stored " + list + " to " + path);
+        } catch(IOException e) {
+            TrustListFile.logger.warn("Could not store trust list file " + path, e);
+        }
+    }
+
+    /**
+     * @throws IOException if the file is not a list file of the current version for <code>digest</code>.
+     */
+    public static TrustList read(Path path, String digest) throws IOException {
+        MappedByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if(buffer.getInt() != TrustListFile.MAGIC) {
+            throw new IOException("Not a trust list file");
+        }
+        int version = buffer.getInt();
+        if(version != TrustListFile.VERSION) {
+            throw new IOException("Unsupported version " + version);
+        }
+        String fileDigest = TrustListFile.readString(buffer);
+        if(!digest.equals(fileDigest)) {
+            throw new IOException("Digest mismatch: " + fileDigest);
+        }
+
+        String sequenceNumber = TrustListFile.readString(buffer);
+        String schemeOperatorName = TrustListFile.readString(buffer);
+        String schemeTerritory = TrustListFile.readString(buffer);
+        String listIssueDateTime = TrustListFile.readString(buffer);
+        String nextUpdate = TrustListFile.readString(buffer);
+        TrustListStore store = TrustListStore.read(buffer);
+
+        TrustList list = new TrustList(sequenceNumber, schemeOperatorName, schemeTerritory, listIssueDateTime,
+                nextUpdate, store);
+        list.initIndex(TrustListIndex.read(buffer, list.getProviders()));
+        return list;
+    }
+
+    public static void write(Path path, String digest, TrustList list) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(TrustListFile.MAGIC);
+                out.writeInt(TrustListFile.VERSION);
+                TrustListFile.writeString(out, digest);
+                TrustListFile.writeString(out, list.getSequenceNumber());
+                TrustListFile.writeString(out, list.getSchemeOperatorName());
+                TrustListFile.writeString(out, list.getSchemeTerritory());
+                TrustListFile.writeString(out, list.getListIssueDateTime());
+                TrustListFile.writeString(out, list.getNextUpdate());
+                list.getStore().write(out);
+                list.getIndex().write(out);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if(length < 0) {
+            return null;
+        }
+        if(length > buffer.remaining()) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a count of elements of at least <code>elementSize</code> bytes each, checked against the bytes left in
+     * <code>buffer</code>, so a corrupt file cannot cause huge allocations.
+     */
+    static int readLength(ByteBuffer buffer, int elementSize) throws IOException {
+        int length = buffer.getInt();
+        if(length < 0 || length > buffer.remaining() / elementSize) {
+            throw new IOException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if(value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,335 @@
+package com.train.gccn.model.trustlist;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable lookup index of the providers of one {@link TrustList}, see {@link TrustList#getIndex()}.
+ * <p>
+ * Providers are indexed by legal name, issuer name and entity identifier URI, each both by the exact value and by
+ * its {@link #normalize(String) normalized} form. Lookups return matching providers in document order.
+ * <p>
+ * Secondary indexes by service type identifier, qualifier URI and (normalized) country serve
+ * {@link TrustList#query(TrustListQuery)}; name prefixes are looked up in the sorted normalized legal names.
+ */
+public class TrustListIndex {
+
+    private static final int NUM_MAPS = 9;
+    private static final int[] NONE = new int[0];
+
+    private final List<TSPRecord> providers;
+    private final Map<String, int[]> byLegalName;
+    private final Map<String, int[]> byIssuerName;
+    private final Map<String, int[]> byEntityIdentifierURI;
+    private final Map<String, int[]> byLegalNameNormalized;
+    private final Map<String, int[]> byIssuerNameNormalized;
+    private final Map<String, int[]> byEntityIdentifierURINormalized;
+    private final Map<String, int[]> byServiceType;
+    private final Map<String, int[]> byQualifierURI;
+    private final Map<String, int[]> byCountryNormalized;
+    private volatile String[] legalNamesSorted; // keys of byLegalNameNormalized, built on first prefix lookup
+
+    TrustListIndex(List<TSPRecord> providers) {
+        this.providers = providers;
+        this.byLegalName = TrustListIndex.index(providers, TrustListIndex.single(TSPRecord::getLegalName), false);
+        this.byIssuerName = TrustListIndex.index(providers, TrustListIndex.single(TSPRecord::getIssuerName), false);
+        this.byEntityIdentifierURI = TrustListIndex.index(providers,
+                TrustListIndex.single(TSPRecord::getEntityIdentifierURI), false);
+        this.byLegalNameNormalized = TrustListIndex.index(providers, TrustListIndex.single(TSPRecord::getLegalName), true);
+        this.byIssuerNameNormalized = TrustListIndex.index(providers, TrustListIndex.single(TSPRecord::getIssuerName), true);
+        this.byEntityIdentifierURINormalized = TrustListIndex.index(providers,
+                TrustListIndex.single(TSPRecord::getEntityIdentifierURI), true);
+        this.byServiceType = TrustListIndex.index(providers, TrustListIndex::serviceTypes, false);
+        this.byQualifierURI = TrustListIndex.index(providers, TrustListIndex.single(TSPRecord::getQualifierURI), false);
+        this.byCountryNormalized = TrustListIndex.index(providers, TrustListIndex.single(TSPRecord::getCountryName), true);
+    }
+
+    private TrustListIndex(List<TSPRecord> providers, List<Map<String, int[]>> maps) {
+        this.providers = providers;
+        this.byLegalName = maps.get(0);
+        this.byIssuerName = maps.get(1);
+        this.byEntityIdentifierURI = maps.get(2);
+        this.byLegalNameNormalized = maps.get(3);
+        this.byIssuerNameNormalized = maps.get(4);
+        this.byEntityIdentifierURINormalized = maps.get(5);
+        this.byServiceType = maps.get(6);
+        this.byQualifierURI = maps.get(7);
+        this.byCountryNormalized = maps.get(8);
+    }
+
+    /**
+     * Reads an index written by {@link #write(DataOutputStream)}, starting at the position of <code>buffer</code>.
+     */
+    static TrustListIndex read(ByteBuffer buffer, List<TSPRecord> providers) throws IOException {
+        List<Map<String, int[]>> maps = new ArrayList<>();
+        for(int i = 0; i < TrustListIndex.NUM_MAPS; i++) {
+            int size = TrustListFile.readLength(buffer, 2 * Integer.BYTES); // key length and ordinal count
+            Map<String, int[]> map = new HashMap<>(size * 4 / 3 + 1);
+            for(int j = 0; j < size; j++) {
+                byte[] key = new byte[TrustListFile.readLength(buffer, 1)];
+                buffer.get(key);
+                map.put(new String(key, StandardCharsets.UTF_8), TrustListStore.readInts(buffer));
+            }
+            maps.add(map);
+        }
+        return new TrustListIndex(providers, maps);
+    }
+
+    /**
+     * Writes each map as number of keys followed by the keys (UTF-8, length prefixed) and their ordinals.
+     */
+    void write(DataOutputStream out) throws IOException {
+        List<Map<String, int[]>> maps = Arrays.asList(this.byLegalName, this.byIssuerName, this.byEntityIdentifierURI,
+                this.byLegalNameNormalized, this.byIssuerNameNormalized, this.byEntityIdentifierURINormalized,
+                this.byServiceType, this.byQualifierURI, this.byCountryNormalized);
+        for(Map<String, int[]> map : maps) {
+            out.writeInt(map.size());
+            for(Map.Entry<String, int[]> entry : map.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(key.length);
+                out.write(key);
+                TrustListStore.writeInts(out, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Derives the index of {@link TrustListDiff#getCurrent()} from the index of the previous version: entries of
+     * unchanged providers are carried over, added and changed providers are indexed anew. <code>previous</code>
+     * is not modified.
+     */
+    TrustListIndex(TrustListIndex previous, TrustListDiff diff) {
+        List<TSPRecord> providers = diff.getCurrent().getProviders();
+        List<TSPRecord> updated = new ArrayList<>(diff.getAddedProviders());
+        for(TrustListDiff.ProviderChange change : diff.getChangedProviders()) {
+            updated.add(change.getCurrent());
+        }
+        int[] ordinals = diff.getUnchangedOrdinals();
+
+        this.providers = providers;
+        this.byLegalName = TrustListIndex.update(previous.byLegalName, ordinals, updated,
+                TrustListIndex.single(TSPRecord::getLegalName), false);
+        this.byIssuerName = TrustListIndex.update(previous.byIssuerName, ordinals, updated,
+                TrustListIndex.single(TSPRecord::getIssuerName), false);
+        this.byEntityIdentifierURI = TrustListIndex.update(previous.byEntityIdentifierURI, ordinals, updated,
+                TrustListIndex.single(TSPRecord::getEntityIdentifierURI), false);
+        this.byLegalNameNormalized = TrustListIndex.update(previous.byLegalNameNormalized, ordinals, updated,
+                TrustListIndex.single(TSPRecord::getLegalName), true);
+        this.byIssuerNameNormalized = TrustListIndex.update(previous.byIssuerNameNormalized, ordinals, updated,
+                TrustListIndex.single(TSPRecord::getIssuerName), true);
+        this.byEntityIdentifierURINormalized = TrustListIndex.update(previous.byEntityIdentifierURINormalized, ordinals,
+                updated, TrustListIndex.single(TSPRecord::getEntityIdentifierURI), true);
+        this.byServiceType = TrustListIndex.update(previous.byServiceType, ordinals, updated,
+                TrustListIndex::serviceTypes, false);
+        this.byQualifierURI = TrustListIndex.update(previous.byQualifierURI, ordinals, updated,
+                TrustListIndex.single(TSPRecord::getQualifierURI), false);
+        this.byCountryNormalized = TrustListIndex.update(previous.byCountryNormalized, ordinals, updated,
+                TrustListIndex.single(TSPRecord::getCountryName), true);
+    }
+
+    /**
+     * Key form for case-insensitive lookups: trimmed, Unicode NFKC and lower case.
+     */
+    public static String normalize(String key) {
+        return Normalizer.normalize(key.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static Function<TSPRecord, Set<String>> single(Function<TSPRecord, String> field) {
+        return provider -> {
+            String value = field.apply(provider);
+            return value == null ? Collections.emptySet() : Collections.singleton(value);
+        };
+    }
+
+    private static Set<String> serviceTypes(TSPRecord provider) {
+        Set<String> types = new LinkedHashSet<>();
+        for(ServiceRecord service : provider.getServices()) {
+            if(service.getServiceTypeIdentifier() != null) {
+                types.add(service.getServiceTypeIdentifier());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @return the keys of <code>provider</code>, normalized if requested, without duplicates.
+     */
+    private static Set<String> keys(TSPRecord provider, Function<TSPRecord, Set<String>> field, boolean normalized) {
+        Set<String> keys = field.apply(provider);
+        if(!normalized || keys.isEmpty()) {
+            return keys;
+        }
+        Set<String> normalizedKeys = new LinkedHashSet<>();
+        for(String key : keys) {
+            normalizedKeys.add(TrustListIndex.normalize(key));
+        }
+        return normalizedKeys;
+    }
+
+    static Map<String, int[]> index(List<TSPRecord> providers, Function<TSPRecord, Set<String>> field, boolean normalized) {
+        Map<String, List<Integer>> ordinals = new HashMap<>();
+        for(int i = 0; i < providers.size(); i++) {
+            for(String key : TrustListIndex.keys(providers.get(i), field, normalized)) {
+                ordinals.computeIfAbsent(key, k -> new ArrayList<>(1)).add(i);
+            }
+        }
+
+        Map<String, int[]> index = new HashMap<>(ordinals.size() * 4 / 3 + 1);
+        for(Map.Entry<String, List<Integer>> entry : ordinals.entrySet()) {
+            index.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return index;
+    }
+
+    static Map<String, int[]> update(Map<String, int[]> previous, int[] ordinals, List<TSPRecord> updated,
+                                     Function<TSPRecord, Set<String>> field, boolean normalized) {
+        Map<String, int[]> index = new HashMap<>(previous.size() * 4 / 3 + 1);
+        for(Map.Entry<String, int[]> entry : previous.entrySet()) {
+            int[] remapped = new int[entry.getValue().length];
+            int size = 0;
+            for(int ordinal : entry.getValue()) {
+                if(ordinals[ordinal] >= 0) {
+                    remapped[size++] = ordinals[ordinal];
+                }
+            }
+            if(size > 0) {
+                index.put(entry.getKey(), size == remapped.length ? remapped : Arrays.copyOf(remapped, size));
+            }
+        }
+
+        for(TSPRecord provider : updated) {
+            for(String key : TrustListIndex.keys(provider, field, normalized)) {
+                int[] existing = index.get(key);
+                int[] merged = existing == null ? new int[1] : Arrays.copyOf(existing, existing.length + 1);
+                merged[merged.length - 1] = provider.getOrdinal();
+                index.put(key, merged);
+            }
+        }
+
+        // keep document order
+        for(int[] entry : index.values()) {
+            if(entry.length > 1) {
+                Arrays.sort(entry);
+            }
+        }
+        return index;
+    }
+
+    public List<TSPRecord> findByLegalName(String legalName, boolean normalized) {
+        return this.find(normalized ? this.byLegalNameNormalized : this.byLegalName, legalName, normalized);
+    }
+
+    public List<TSPRecord> findByIssuerName(String issuerName, boolean normalized) {
+        return this.find(normalized ? this.byIssuerNameNormalized : this.byIssuerName, issuerName, normalized);
+    }
+
+    public List<TSPRecord> findByEntityIdentifierURI(String uri, boolean normalized) {
+        return this.find(normalized ? this.byEntityIdentifierURINormalized : this.byEntityIdentifierURI, uri, normalized);
+    }
+
+    /**
+     * @return the ordinals of all providers matching every filter of <code>query</code>, ascending.
+     */
+    int[] select(TrustListQuery query) {
+        List<int[]> candidates = new ArrayList<>();
+        if(query.getServiceType() != null) {
+            candidates.add(this.byServiceType.getOrDefault(query.getServiceType(), TrustListIndex.NONE));
+        }
+        if(query.getQualifierURI() != null) {
+            candidates.add(this.byQualifierURI.getOrDefault(query.getQualifierURI(), TrustListIndex.NONE));
+        }
+        if(query.getCountry() != null) {
+            candidates.add(this.byCountryNormalized.getOrDefault(TrustListIndex.normalize(query.getCountry()), TrustListIndex.NONE));
+        }
+        if(query.getNamePrefix() != null) {
+            candidates.add(this.selectByPrefix(TrustListIndex.normalize(query.getNamePrefix())));
+        }
+        if(candidates.isEmpty()) {
+            return IntStream.range(0, this.providers.size()).toArray();
+        }
+
+        candidates.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = candidates.get(0);
+        for(int i = 1; i < candidates.size() && result.length > 0; i++) {
+            result = TrustListIndex.intersect(result, candidates.get(i));
+        }
+        return result;
+    }
+
+    private int[] selectByPrefix(String prefix) {
+        String[] names = this.legalNamesSorted;
+        if(names == null) {
+            names = this.byLegalNameNormalized.keySet().toArray(new String[0]);
+            Arrays.sort(names);
+            this.legalNamesSorted = names;
+        }
+
+        int from = Arrays.binarySearch(names, prefix);
+        if(from < 0) {
+            from = -from - 1;
+        }
+        List<int[]> matches = new ArrayList<>();
+        int size = 0;
+        for(int i = from; i < names.length && names[i].startsWith(prefix); i++) {
+            int[] ordinals = this.byLegalNameNormalized.get(names[i]);
+            matches.add(ordinals);
+            size += ordinals.length;
+        }
+
+        int[] result = new int[size];
+        int offset = 0;
+        for(int[] ordinals : matches) {
+            System.arraycopy(ordinals, 0, result, offset, ordinals.length);
+            offset += ordinals.length;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for(int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if(a[i] < b[j]) {
+                i++;
+            } else if(a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private List<TSPRecord> find(Map<String, int[]> index, String key, boolean normalized) {
+        if(key == null) {
+            return Collections.emptyList();
+        }
+        int[] ordinals = index.get(normalized ? TrustListIndex.normalize(key) : key);
+        if(ordinals == null) {
+            return Collections.emptyList();
+        }
+
+        List<TSPRecord> result = new ArrayList<>(ordinals.length);
+        for(int ordinal : ordinals) {
+            result.add(this.providers.get(ordinal));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package com.train.gccn.model.trustlist;
+
+/**
+ * Notified by {@link TrustListRegistry} when a new version of a scheme's trust list is published.
+ */
+public interface TrustListListener {
+
+    /**
+     * Called on the publishing thread, after the new version is visible via {@link TrustListRegistry#get(String)}.
+     * Calls for one scheme are made one at a time, in publish order; no listener may publish itself.
+     */
+    void onTrustListChanged(String schemeId, TrustListDiff diff);
+}
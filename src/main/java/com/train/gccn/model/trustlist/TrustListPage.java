@@ -0,0 +1,43 @@
+package com.train.gccn.model.trustlist;
+
+import java.util.List;
+
+/**
+ * Result of a {@link TrustList#query(TrustListQuery)}.
+ */
+public class TrustListPage {
+
+    private final List<TSPRecord> providers;
+    private final int total;
+    private final String nextCursor;
+
+    TrustListPage(List<TSPRecord> providers, int total, String nextCursor) {
+        this.providers = providers;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the providers of this page, in document order.
+     */
+    public List<TSPRecord> getProviders() {
+        return this.providers;
+    }
+
+    /**
+     * @return the number of matching providers over all pages.
+     */
+    public int getTotal() {
+        return this.total;
+    }
+
+    /**
+     * The cursor refers to a position in this version of the list: pages do not shift while the list is unchanged,
+     * and a cursor of a replaced version is rejected instead of skipping or repeating providers.
+     *
+     * @return the cursor of the next page, or <code>null</code> if this is the last page.
+     */
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+}
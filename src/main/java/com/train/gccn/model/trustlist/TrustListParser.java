@@ -0,0 +1,406 @@
+package com.train.gccn.model.trustlist;
+
+import org.apache.log4j.Logger;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming (StAX) parser for Trust Status Lists (ETSI TS 119 612).
+ * <p>
+ * Reads the list in a single pass and keeps only the fields of {@link TrustList}, {@link TSPRecord} and
+ * {@link ServiceRecord} in a compact {@link TrustListStore}, no DOM is built.
+ * Elements are matched by local name, so namespace prefixes do not matter.
+ * If an element occurs more than once, the first non-blank value wins.
+ * <p>
+ * Very large lists can be parsed on multiple cores via {@link ParallelTrustListParser}.
+ */
+public class TrustListParser {
+
+    private static final String PATH_PROVIDER = "/TrustServiceProviderList/TrustServiceProvider";
+    private static final String PATH_SERVICE = "/TSPServices/TSPService";
+    private static final String ELEMENT_PROVIDER_LIST = "TrustServiceProviderList";
+    private static final String LANGUAGE_ENGLISH = "en";
+    private static Logger logger = Logger.getLogger(TrustListParser.class);
+    private static final XMLInputFactory factory = TrustListParser.createFactory();
+
+    private final StringBuilder path = new StringBuilder(); // local names of all open elements, "/"-separated
+    private final StringBuilder text = new StringBuilder();
+    private int[] offsets = new int[32]; // path length before each open element
+    private int depth = 0;
+    private int rootOffset = -1;
+    private int providerOffset = -1;
+    private int serviceOffset = -1;
+
+    private String sequenceNumber;
+    private String schemeOperatorName;
+    private String schemeTerritory;
+    private String listIssueDateTime;
+    private String nextUpdate;
+    private final TrustListStore.Builder store = new TrustListStore.Builder();
+    private ProviderState provider;
+    private ServiceState service;
+    private final boolean skeleton;
+    private List<String[]> declarations; // prefix & URI of the namespaces declared by the open elements, see skeleton
+    private int[] declarationOffsets; // number of declarations before each open element
+    private Map<String, String> providerListNamespaces; // prefix -> URI in scope of the TrustServiceProviderList
+
+    private TrustListParser(boolean skeleton) {
+        this.skeleton = skeleton;
+        if(skeleton) {
+            this.declarations = new ArrayList<>();
+            this.declarationOffsets = new int[this.offsets.length];
+        }
+    }
+
+    public static TrustList parse(String xml) throws XMLStreamException {
+        return TrustListParser.parse(TrustListParser.factory.createXMLStreamReader(new StringReader(xml)));
+    }
+
+    public static TrustList parse(InputStream xml) throws XMLStreamException {
+        return TrustListParser.parse(TrustListParser.factory.createXMLStreamReader(xml));
+    }
+
+    private static TrustList parse(XMLStreamReader reader) throws XMLStreamException {
+        long start = System.currentTimeMillis();
+        try {
+            TrustListParser parser = new TrustListParser(false);
+            parser.read(reader);
+            TrustList list = parser.toTrustList(parser.store.build());
+            TrustListParser.logger.info("Parsed " + list + " in " + (System.currentTimeMillis() - start) + "ms");
+            return list;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Parses a list with its <code>TrustServiceProvider</code> elements cut out, to the end of the document.
+     * Use {@link #toTrustList(TrustListStore)} to add the separately parsed providers.
+     */
+    static TrustListParser parseSkeleton(String skeleton) throws XMLStreamException {
+        XMLStreamReader reader = TrustListParser.factory.createXMLStreamReader(new StringReader(skeleton));
+        try {
+            TrustListParser parser = new TrustListParser(true);
+            parser.read(reader);
+            return parser;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @param chunk a sequence of <code>TrustServiceProvider</code> elements, wrapped in a <code>TrustServiceProviderList</code>
+     *              that declares their namespaces (see {@link #getProviderListNamespaces()}).
+     */
+    static TrustListStore.Builder parseProviders(String chunk) throws XMLStreamException {
+        XMLStreamReader reader = TrustListParser.factory.createXMLStreamReader(new StringReader(chunk));
+        try {
+            TrustListParser parser = new TrustListParser(false);
+            parser.read(reader);
+            return parser.store;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    /**
+     * @return prefix (empty for the default namespace) -> URI of the namespaces in scope of the
+     * <code>TrustServiceProviderList</code> of a skeleton, empty if it has none.
+     */
+    Map<String, String> getProviderListNamespaces() {
+        return this.providerListNamespaces != null ? this.providerListNamespaces : new LinkedHashMap<>();
+    }
+
+    TrustList toTrustList(TrustListStore providers) {
+        return new TrustList(this.sequenceNumber, this.schemeOperatorName, this.schemeTerritory,
+                this.listIssueDateTime, this.nextUpdate, providers);
+    }
+
+    private void read(XMLStreamReader reader) throws XMLStreamException {
+        while(reader.hasNext()) {
+            switch(reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    this.startElement(reader.getLocalName());
+                    if(this.provider != null) {
+                        this.provider.lang = reader.getAttributeValue(XMLConstants.XML_NS_URI, "lang");
+                    }
+                    if(this.skeleton) {
+                        this.declareNamespaces(reader);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    this.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    this.endElement();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void startElement(String name) {
+        String localName = name.substring(name.indexOf(':') + 1);
+        if(this.depth == this.offsets.length) {
+            int[] offsets = new int[this.depth * 2];
+            System.arraycopy(this.offsets, 0, offsets, 0, this.depth);
+            this.offsets = offsets;
+        }
+        this.offsets[this.depth++] = this.path.length();
+        this.path.append('/').append(localName);
+        this.text.setLength(0);
+
+        if(this.depth == 1) {
+            this.rootOffset = this.path.length();
+        } else if(this.providerOffset < 0) {
+            if(this.pathEndsWith(TrustListParser.PATH_PROVIDER)) {
+                this.providerOffset = this.path.length();
+                this.provider = new ProviderState();
+            }
+        } else if(this.serviceOffset < 0 && this.pathEquals(this.providerOffset, TrustListParser.PATH_SERVICE)) {
+            this.serviceOffset = this.path.length();
+            this.service = new ServiceState();
+        }
+    }
+
+    private void endElement() {
+        String value = this.textValue();
+
+        if(this.path.length() == this.serviceOffset) {
+            this.store.addService(this.service.fields, this.service.additionalServiceInfoURIs);
+            this.service = null;
+            this.serviceOffset = -1;
+        } else if(this.path.length() == this.providerOffset) {
+            this.store.addProvider(this.provider.fields, this.provider.names);
+            this.provider = null;
+            this.providerOffset = -1;
+        } else if(value != null) {
+            if(this.serviceOffset >= 0) {
+                this.service.set(this.path.substring(this.serviceOffset), value);
+            } else if(this.providerOffset >= 0) {
+                this.provider.set(this.path.substring(this.providerOffset), value);
+            } else if(this.rootOffset >= 0) {
+                this.setHeader(this.path.substring(this.rootOffset), value);
+            }
+        }
+
+        this.path.setLength(this.offsets[--this.depth]);
+        this.text.setLength(0);
+        if(this.skeleton) {
+            int declared = this.declarationOffsets[this.depth];
+            this.declarations.subList(declared, this.declarations.size()).clear();
+        }
+    }
+
+    /**
+     * Tracks the namespace declarations of the element just opened (by {@link #startElement(String)}) and records the
+     * ones in scope of the <code>TrustServiceProviderList</code>, so its cut out providers can be parsed on their own.
+     */
+    private void declareNamespaces(XMLStreamReader reader) {
+        if(this.declarationOffsets.length < this.offsets.length) {
+            int[] declarationOffsets = new int[this.offsets.length];
+            System.arraycopy(this.declarationOffsets, 0, declarationOffsets, 0, this.declarationOffsets.length);
+            this.declarationOffsets = declarationOffsets;
+        }
+        this.declarationOffsets[this.depth - 1] = this.declarations.size();
+        for(int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            String uri = reader.getNamespaceURI(i);
+            this.declarations.add(new String[]{prefix != null ? prefix : "", uri != null ? uri : ""});
+        }
+
+        if(this.providerListNamespaces == null && this.pathEquals(this.rootOffset, "/" + TrustListParser.ELEMENT_PROVIDER_LIST)) {
+            this.providerListNamespaces = new LinkedHashMap<>();
+            for(String[] declaration : this.declarations) {
+                this.providerListNamespaces.put(declaration[0], declaration[1]);
+            }
+        }
+    }
+
+    private void setHeader(String path, String value) {
+        switch(path) {
+            case "/SchemeInformation/TSLSequenceNumber":
+                this.sequenceNumber = TrustListParser.first(this.sequenceNumber, value);
+                break;
+            case "/SchemeInformation/SchemeOperatorName/Name":
+                this.schemeOperatorName = TrustListParser.first(this.schemeOperatorName, value);
+                break;
+            case "/SchemeInformation/SchemeTerritory":
+                this.schemeTerritory = TrustListParser.first(this.schemeTerritory, value);
+                break;
+            case "/SchemeInformation/ListIssueDateTime":
+                this.listIssueDateTime = TrustListParser.first(this.listIssueDateTime, value);
+                break;
+            case "/SchemeInformation/NextUpdate/dateTime":
+                this.nextUpdate = TrustListParser.first(this.nextUpdate, value);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return the text of the element just closed, <code>null</code> if blank.
+     */
+    private String textValue() {
+        for(int i = 0; i < this.text.length(); i++) {
+            if(!Character.isWhitespace(this.text.charAt(i))) {
+                return this.text.toString();
+            }
+        }
+        return null;
+    }
+
+    private boolean pathEndsWith(String suffix) {
+        return this.pathEquals(this.path.length() - suffix.length(), suffix);
+    }
+
+    private boolean pathEquals(int offset, String s) {
+        if(offset < 0 || this.path.length() - offset != s.length()) {
+            return false;
+        }
+        for(int i = 0; i < s.length(); i++) {
+            if(this.path.charAt(offset + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String first(String current, String value) {
+        return current != null ? current : value;
+    }
+
+    private static class ProviderState {
+
+        final String[] fields = new String[TrustListStore.PROVIDER_FIELDS];
+        final List<String> names = new ArrayList<>(2);
+        String lang; // xml:lang of the element just opened
+        private boolean englishName = false;
+
+        void set(String path, String value) {
+            switch(path) {
+                case "/TSPInformation/TSPName/Name":
+                    this.addName(value);
+                    this.setName(value);
+                    break;
+                case "/TSPInformation/TSPTradeName/Name":
+                    this.addName(value);
+                    break;
+                case "/TSPInformation/TSPLegalName/Name":
+                    this.addName(value);
+                    this.setFirst(TrustListStore.PROVIDER_LEGAL_NAME, value);
+                    break;
+                case "/TSPInformation/IssuerName/Name":
+                    this.addName(value);
+                    this.setFirst(TrustListStore.PROVIDER_ISSUER_NAME, value);
+                    break;
+                case "/TSPInformation/TrustSchemeName/Name":
+                    this.setFirst(TrustListStore.PROVIDER_TRUST_SCHEME_NAME, value);
+                    break;
+                case "/TSPInformation/TSPEntityIdentifierList/TSPEntityIdentifier/TSPEntityIdentifierURI":
+                    this.setFirst(TrustListStore.PROVIDER_ENTITY_IDENTIFIER_URI, value);
+                    break;
+                case "/TSPInformation/TSPQualifierList/TSPQualifier/QualifierURI":
+                    this.setFirst(TrustListStore.PROVIDER_QUALIFIER_URI, value);
+                    break;
+                case "/TSPInformation/TSPAddress/PostalAddresses/PostalAddress/CountryName":
+                    this.setFirst(TrustListStore.PROVIDER_COUNTRY_NAME, value.trim());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void setFirst(int field, String value) {
+            this.fields[field] = TrustListParser.first(this.fields[field], value);
+        }
+
+        /**
+         * Keeps the first English name, else the first one.
+         */
+        private void setName(String value) {
+            boolean english = TrustListParser.LANGUAGE_ENGLISH.equals(this.lang);
+            if(this.fields[TrustListStore.PROVIDER_NAME] == null || english && !this.englishName) {
+                this.fields[TrustListStore.PROVIDER_NAME] = value;
+                this.englishName = english;
+            }
+        }
+
+        /**
+         * Collects each distinct name (all languages), for {@link NameSearchIndex}.
+         */
+        private void addName(String value) {
+            String name = value.trim();
+            if(!this.names.contains(name)) {
+                this.names.add(name);
+            }
+        }
+    }
+
+    private static class ServiceState {
+
+        final String[] fields = new String[TrustListStore.SERVICE_FIELDS];
+        final List<String> additionalServiceInfoURIs = new ArrayList<>(1);
+
+        void set(String path, String value) {
+            switch(path) {
+                case "/ServiceInformation/ServiceName/Name":
+                    this.setFirst(TrustListStore.SERVICE_NAME, value);
+                    break;
+                case "/ServiceInformation/ServiceStatus":
+                    this.setFirst(TrustListStore.SERVICE_STATUS, value);
+                    break;
+                case "/ServiceInformation/ServiceTypeIdentifier":
+                    this.setFirst(TrustListStore.SERVICE_TYPE_IDENTIFIER, value);
+                    break;
+                case "/ServiceInformation/SchemeServiceDefinition":
+                    this.setFirst(TrustListStore.SERVICE_SCHEME_DEFINITION, value);
+                    break;
+                case "/ServiceInformation/ServiceSupplyPoint":
+                case "/ServiceInformation/ServiceSupplyPoints/ServiceSupplyPoint":
+                    this.setFirst(TrustListStore.SERVICE_SUPPLY_POINT, value);
+                    break;
+                case "/ServiceInformation/ServiceDefintionURI": // sic, as published in our lists
+                case "/ServiceInformation/ServiceDefinitionURI":
+                    this.setFirst(TrustListStore.SERVICE_DEFINITION_URI, value);
+                    break;
+                case "/ServiceInformation/AdditionalServiceInformation/ServiceGovernanceURI":
+                    this.setFirst(TrustListStore.SERVICE_GOVERNANCE_URI, value);
+                    break;
+                case "/ServiceInformation/ServiceDigitalIdentity/DigitalId/X509Certificate":
+                    this.setFirst(TrustListStore.SERVICE_DIGITAL_ID, value);
+                    break;
+                case "/ServiceInformation/ServiceInformationExtensions/Extension/AdditionalServiceInformation/URI":
+                    this.additionalServiceInfoURIs.add(value.trim());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void setFirst(int field, String value) {
+            this.fields[field] = TrustListParser.first(this.fields[field], value);
+        }
+    }
+}
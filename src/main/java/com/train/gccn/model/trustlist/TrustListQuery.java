@@ -0,0 +1,84 @@
+package com.train.gccn.model.trustlist;
+
+import com.train.gccn.ATVConfiguration;
+
+/**
+ * Filters and page of a {@link TrustList#query(TrustListQuery)}.
+ * <p>
+ * All filters are optional and combined with AND: a service of the provider has the given
+ * <code>ServiceTypeIdentifier</code>, the provider's postal address has the given country (case-insensitive), the
+ * provider has the given <code>QualifierURI</code>, its legal name starts with the given prefix (compared in
+ * {@link TrustListIndex#normalize(String) normalized} form).
+ * <p>
+ * Pages hold at most <code>limit</code> providers (<code>trustlist_query_limit</code>, 100 by default) and continue
+ * after the position encoded in <code>cursor</code>, see {@link TrustListPage#getNextCursor()}.
+ */
+public class TrustListQuery {
+
+    private String serviceType;
+    private String country;
+    private String qualifierURI;
+    private String namePrefix;
+    private String cursor;
+    private int limit = ATVConfiguration.get().getInt("trustlist_query_limit", 100);
+
+    public String getServiceType() {
+        return this.serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public String getCountry() {
+        return this.country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getQualifierURI() {
+        return this.qualifierURI;
+    }
+
+    public void setQualifierURI(String qualifierURI) {
+        this.qualifierURI = qualifierURI;
+    }
+
+    public String getNamePrefix() {
+        return this.namePrefix;
+    }
+
+    public void setNamePrefix(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    /**
+     * @return where to continue, or <code>null</code> for the first page.
+     */
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    public void setLimit(int limit) {
+        if(limit < 1) {
+            throw new IllegalArgumentException("Invalid page limit: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "TrustListQuery{type=" + this.serviceType + ", country=" + this.country + ", qualifier="
+                + this.qualifierURI + ", prefix=" + this.namePrefix + ", limit=" + this.limit + "}";
+    }
+}
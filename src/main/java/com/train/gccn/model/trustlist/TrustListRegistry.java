@@ -0,0 +1,99 @@
+package com.train.gccn.model.trustlist;
+
+import org.apache.log4j.Logger;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Current {@link TrustList} of each trust scheme.
+ * <p>
+ * Publishing a new version computes a {@link TrustListDiff} against the current one, derives the new lookup index
+ * from the current index (if it was built) instead of rebuilding it, swaps the version and notifies all
+ * {@link TrustListListener}s. Readers holding the previous version are not affected. Publishing is serialized per
+ * scheme, listeners included, so they see the versions of a scheme in publish order.
+ */
+public class TrustListRegistry {
+
+    private static Logger logger = Logger.getLogger(TrustListRegistry.class);
+    private static final Map<String, TrustList> lists = new ConcurrentHashMap<>();
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>(); // per scheme, see publish()
+    private static final List<TrustListListener> listeners = new CopyOnWriteArrayList<>();
+
+    private TrustListRegistry() {
+        // static class
+    }
+
+    /**
+     * @return the current version for <code>schemeId</code>, or <code>null</code>.
+     */
+    public static TrustList get(String schemeId) {
+        return TrustListRegistry.lists.get(schemeId);
+    }
+
+    /**
+     * @return the identifiers of all schemes with a published list.
+     */
+    public static Set<String> getSchemeIds() {
+        return new HashSet<>(TrustListRegistry.lists.keySet());
+    }
+
+    public static void addListener(TrustListListener listener) {
+        TrustListRegistry.listeners.add(listener);
+    }
+
+    public static void removeListener(TrustListListener listener) {
+        TrustListRegistry.listeners.remove(listener);
+    }
+
+    /**
+     * Makes <code>list</code> the current version for <code>schemeId</code>.
+     *
+     * @return the changes, or <code>null</code> if <code>list</code> is already current or older than the current
+     * version (by <code>TSLSequenceNumber</code>).
+     */
+    public static TrustListDiff publish(String schemeId, TrustList list) {
+        synchronized(TrustListRegistry.locks.computeIfAbsent(schemeId, id -> new Object())) {
+            TrustList previous = TrustListRegistry.lists.get(schemeId);
+            if(previous == list) {
+                return null;
+            }
+            if(previous != null && TrustListRegistry.isOlder(list, previous)) {
+                TrustListRegistry.logger.warn("Ignoring " + list + " for " + schemeId + ", current is " + previous);
+                return null;
+            }
+
+            long start = System.currentTimeMillis();
+            TrustListDiff diff = TrustListDiff.compute(previous, list);
+            TrustListIndex previousIndex = previous == null ? null : previous.peekIndex();
+            if(previousIndex != null) {
+                list.initIndex(new TrustListIndex(previousIndex, diff));
+            }
+            TrustListRegistry.lists.put(schemeId, list);
+            TrustListRegistry.logger.info("Published " + list + " for " + schemeId + ": " + diff + " in "
+                    + (System.currentTimeMillis() - start) + "ms");
+
+            // still holding the scheme's lock: the next version is not published before all listeners saw this one
+            for(TrustListListener listener : TrustListRegistry.listeners) {
+                try {
+                    listener.onTrustListChanged(schemeId, diff);
+                } catch(RuntimeException e) {
+                    TrustListRegistry.logger.error("Trust list listener failed for " + schemeId, e);
+                }
+            }
+            return diff;
+        }
+    }
+
+    private static boolean isOlder(TrustList list, TrustList current) {
+        try {
+            return Long.parseLong(list.getSequenceNumber()) < Long.parseLong(current.getSequenceNumber());
+        } catch(NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.train.gccn.model.trustlist;
+
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact storage of the providers and services of one {@link TrustList}.
+ * <p>
+ * All values are kept once in a per-store string dictionary and referenced by integer code; providers and services
+ * are rows of primitive arrays. {@link TSPRecord} and {@link ServiceRecord} are views onto a row.
+ * Service certificates are decoded on first use.
+ * <p>
+ * Stores can be written to and read from the binary {@link TrustListFile} format; a store read from a (mapped) buffer
+ * decodes dictionary values on first use.
+ */
+class TrustListStore {
+
+    static final int PROVIDER_LEGAL_NAME = 0;
+    static final int PROVIDER_ISSUER_NAME = 1;
+    static final int PROVIDER_TRUST_SCHEME_NAME = 2;
+    static final int PROVIDER_ENTITY_IDENTIFIER_URI = 3;
+    static final int PROVIDER_QUALIFIER_URI = 4;
+    static final int PROVIDER_COUNTRY_NAME = 5;
+    static final int PROVIDER_NAME = 6;
+    static final int PROVIDER_FIELDS = 7;
+
+    static final int SERVICE_NAME = 0;
+    static final int SERVICE_STATUS = 1;
+    static final int SERVICE_TYPE_IDENTIFIER = 2;
+    static final int SERVICE_SCHEME_DEFINITION = 3;
+    static final int SERVICE_SUPPLY_POINT = 4;
+    static final int SERVICE_DEFINITION_URI = 5;
+    static final int SERVICE_GOVERNANCE_URI = 6;
+    static final int SERVICE_DIGITAL_ID = 7;
+    static final int SERVICE_FIELDS = 8;
+
+    private static final int NULL = -1;
+    private static final Object INVALID_CERTIFICATE = new Object(); // in certificates, digital ID could not be decoded
+    private static Logger logger = Logger.getLogger(TrustListStore.class);
+
+    private final String[] strings; // dictionary
+    private final ByteBuffer stringData; // UTF-8 dictionary values not yet decoded, or null
+    private final int[] stringOffsets; // offset of each value in stringData, plus end
+    private final int[] providerFields; // PROVIDER_FIELDS codes per provider
+    private final int[] providerServices; // first service per provider, plus end
+    private final int[] providerNames; // first name per provider, plus end
+    private final int[] names; // codes
+    private final int[] serviceFields; // SERVICE_FIELDS codes per service
+    private final int[] serviceInfoURIs; // first info URI per service, plus end
+    private final int[] infoURIs; // codes
+    private final AtomicReferenceArray<Object> certificates; // decoded certificate or INVALID_CERTIFICATE
+    private final List<TSPRecord> providers;
+
+    private TrustListStore(Builder builder) {
+        this(builder.strings.toArray(new String[0]), null, null, builder.providerFields.toArray(),
+                builder.providerServices.toArray(), builder.providerNames.toArray(), builder.names.toArray(),
+                builder.serviceFields.toArray(), builder.serviceInfoURIs.toArray(), builder.infoURIs.toArray());
+
+        TrustListStore.logger.info("Stored " + this.getNumProviders() + " provider(s), " + this.getNumServices()
+                + " service(s), " + this.strings.length + " distinct value(s)");
+    }
+
+    private TrustListStore(String[] strings, ByteBuffer stringData, int[] stringOffsets, int[] providerFields,
+                           int[] providerServices, int[] providerNames, int[] names, int[] serviceFields,
+                           int[] serviceInfoURIs, int[] infoURIs) {
+        this.strings = strings;
+        this.stringData = stringData;
+        this.stringOffsets = stringOffsets;
+        this.providerFields = providerFields;
+        this.providerServices = providerServices;
+        this.providerNames = providerNames;
+        this.names = names;
+        this.serviceFields = serviceFields;
+        this.serviceInfoURIs = serviceInfoURIs;
+        this.infoURIs = infoURIs;
+        this.certificates = new AtomicReferenceArray<>(this.getNumServices());
+        this.providers = new RecordList<>(this.getNumProviders(), ordinal -> new TSPRecord(this, ordinal));
+    }
+
+    /**
+     * Reads a store written by {@link #write(DataOutputStream)}, starting at the position of <code>buffer</code>.
+     * Dictionary values stay in <code>buffer</code> until used. Leaves the position after the store.
+     */
+    static TrustListStore read(ByteBuffer buffer) throws IOException {
+        int[] stringOffsets = TrustListStore.readInts(buffer);
+        int dataLength = stringOffsets.length == 0 ? -1 : stringOffsets[stringOffsets.length - 1];
+        if(dataLength < 0 || dataLength > buffer.remaining()) {
+            throw new IOException("Invalid dictionary length " + dataLength);
+        }
+        ByteBuffer stringData = buffer.slice();
+        stringData.limit(dataLength);
+        buffer.position(buffer.position() + dataLength);
+
+        return new TrustListStore(new String[stringOffsets.length - 1], stringData, stringOffsets,
+                TrustListStore.readInts(buffer), TrustListStore.readInts(buffer), TrustListStore.readInts(buffer),
+                TrustListStore.readInts(buffer), TrustListStore.readInts(buffer), TrustListStore.readInts(buffer),
+                TrustListStore.readInts(buffer));
+    }
+
+    /**
+     * Writes dictionary and records: the dictionary as value offsets followed by the UTF-8 values, each record
+     * array as length followed by the codes.
+     */
+    void write(DataOutputStream out) throws IOException {
+        byte[][] values = new byte[this.strings.length][];
+        int[] offsets = new int[values.length + 1];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = this.decode(i).getBytes(StandardCharsets.UTF_8);
+            offsets[i + 1] = offsets[i] + values[i].length;
+        }
+        TrustListStore.writeInts(out, offsets);
+        for(byte[] value : values) {
+            out.write(value);
+        }
+
+        TrustListStore.writeInts(out, this.providerFields);
+        TrustListStore.writeInts(out, this.providerServices);
+        TrustListStore.writeInts(out, this.providerNames);
+        TrustListStore.writeInts(out, this.names);
+        TrustListStore.writeInts(out, this.serviceFields);
+        TrustListStore.writeInts(out, this.serviceInfoURIs);
+        TrustListStore.writeInts(out, this.infoURIs);
+    }
+
+    static int[] readInts(ByteBuffer buffer) throws IOException {
+        int[] values = new int[TrustListFile.readLength(buffer, Integer.BYTES)];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for(int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    int getNumProviders() {
+        return this.providerServices.length - 1;
+    }
+
+    int getNumServices() {
+        return this.serviceInfoURIs.length - 1;
+    }
+
+    List<TSPRecord> getProviders() {
+        return this.providers;
+    }
+
+    String getProviderField(int provider, int field) {
+        return this.decode(this.providerFields[provider * TrustListStore.PROVIDER_FIELDS + field]);
+    }
+
+    List<String> getProviderNames(int provider) {
+        int first = this.providerNames[provider];
+        int end = this.providerNames[provider + 1];
+        return new RecordList<>(end - first, i -> this.decode(this.names[first + i]));
+    }
+
+    List<ServiceRecord> getServices(int provider) {
+        int first = this.providerServices[provider];
+        int end = this.providerServices[provider + 1];
+        return new RecordList<>(end - first, i -> new ServiceRecord(this, first + i));
+    }
+
+    String getServiceField(int service, int field) {
+        return this.decode(this.serviceFields[service * TrustListStore.SERVICE_FIELDS + field]);
+    }
+
+    List<String> getServiceInfoURIs(int service) {
+        int first = this.serviceInfoURIs[service];
+        int end = this.serviceInfoURIs[service + 1];
+        return new RecordList<>(end - first, i -> this.decode(this.infoURIs[first + i]));
+    }
+
+    /**
+     * @return the decoded service certificate, or <code>null</code> if missing or invalid (logged once).
+     */
+    X509Certificate getCertificate(int service) {
+        Object cached = this.certificates.get(service);
+        if(cached != null) {
+            return cached == TrustListStore.INVALID_CERTIFICATE ? null : (X509Certificate) cached;
+        }
+        String digitalId = this.getServiceField(service, TrustListStore.SERVICE_DIGITAL_ID);
+        if(digitalId == null) {
+            return null;
+        }
+        try {
+            byte[] der = Base64.getMimeDecoder().decode(digitalId);
+            X509Certificate certificate = (X509Certificate) CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(der));
+            this.certificates.set(service, certificate);
+            return certificate;
+        } catch(CertificateException | IllegalArgumentException e) {
+            if(this.certificates.compareAndSet(service, null, TrustListStore.INVALID_CERTIFICATE)) {
+                TrustListStore.logger.warn("Invalid service certificate: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private String decode(int code) {
+        if(code == TrustListStore.NULL) {
+            return null;
+        }
+        String value = this.strings[code];
+        if(value == null) {
+            // racy but safe, strings are immutable
+            ByteBuffer data = this.stringData.duplicate();
+            data.position(this.stringOffsets[code]);
+            byte[] bytes = new byte[this.stringOffsets[code + 1] - this.stringOffsets[code]];
+            data.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            this.strings[code] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Read-only list of views, created on access.
+     */
+    private static class RecordList<T> extends AbstractList<T> {
+
+        private final int size;
+        private final RecordFactory<T> factory;
+
+        RecordList(int size, RecordFactory<T> factory) {
+            this.size = size;
+            this.factory = factory;
+        }
+
+        @Override
+        public T get(int index) {
+            if(index < 0 || index >= this.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + this.size);
+            }
+            return this.factory.create(index);
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+
+    private interface RecordFactory<T> {
+
+        T create(int index);
+    }
+
+    /**
+     * Collects providers in document order: all services of a provider are added before the provider itself.
+     */
+    static class Builder {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final IntList providerFields = new IntList();
+        private final IntList providerServices = new IntList();
+        private final IntList providerNames = new IntList();
+        private final IntList names = new IntList();
+        private final IntList serviceFields = new IntList();
+        private final IntList serviceInfoURIs = new IntList();
+        private final IntList infoURIs = new IntList();
+
+        Builder() {
+            this.providerServices.add(0);
+            this.providerNames.add(0);
+            this.serviceInfoURIs.add(0);
+        }
+
+        void addService(String[] fields, List<String> infoURIs) {
+            for(String value : fields) {
+                this.serviceFields.add(this.encode(value));
+            }
+            for(String uri : infoURIs) {
+                this.infoURIs.add(this.encode(uri));
+            }
+            this.serviceInfoURIs.add(this.infoURIs.size());
+        }
+
+        /**
+         * Adds a provider owning all services added since the previous provider.
+         */
+        void addProvider(String[] fields, List<String> names) {
+            for(String value : fields) {
+                this.providerFields.add(this.encode(value));
+            }
+            for(String name : names) {
+                this.names.add(this.encode(name));
+            }
+            this.providerServices.add(this.serviceInfoURIs.size() - 1);
+            this.providerNames.add(this.names.size());
+        }
+
+        /**
+         * Adds all providers of <code>other</code> (in order) after the providers of this builder.
+         */
+        void append(Builder other) {
+            int[] codes = new int[other.strings.size()];
+            for(int i = 0; i < codes.length; i++) {
+                codes[i] = this.encode(other.strings.get(i));
+            }
+            int serviceBase = this.serviceInfoURIs.size() - 1;
+            int infoBase = this.infoURIs.size();
+            int nameBase = this.names.size();
+
+            for(int i = 0; i < other.serviceFields.size(); i++) {
+                this.serviceFields.add(Builder.recode(codes, other.serviceFields.get(i)));
+            }
+            for(int i = 0; i < other.infoURIs.size(); i++) {
+                this.infoURIs.add(Builder.recode(codes, other.infoURIs.get(i)));
+            }
+            for(int i = 1; i < other.serviceInfoURIs.size(); i++) {
+                this.serviceInfoURIs.add(infoBase + other.serviceInfoURIs.get(i));
+            }
+            for(int i = 0; i < other.providerFields.size(); i++) {
+                this.providerFields.add(Builder.recode(codes, other.providerFields.get(i)));
+            }
+            for(int i = 1; i < other.providerServices.size(); i++) {
+                this.providerServices.add(serviceBase + other.providerServices.get(i));
+            }
+            for(int i = 0; i < other.names.size(); i++) {
+                this.names.add(Builder.recode(codes, other.names.get(i)));
+            }
+            for(int i = 1; i < other.providerNames.size(); i++) {
+                this.providerNames.add(nameBase + other.providerNames.get(i));
+            }
+        }
+
+        TrustListStore build() {
+            return new TrustListStore(this);
+        }
+
+        private static int recode(int[] codes, int code) {
+            return code == TrustListStore.NULL ? TrustListStore.NULL : codes[code];
+        }
+
+        private int encode(String value) {
+            if(value == null) {
+                return TrustListStore.NULL;
+            }
+            Integer code = this.codes.get(value);
+            if(code == null) {
+                code = this.strings.size();
+                this.strings.add(value);
+                this.codes.put(value, code);
+            }
+            return code;
+        }
+    }
+
+    private static class IntList {
+
+        private int[] values = new int[64];
+        private int size = 0;
+
+        void add(int value) {
+            if(this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        int get(int index) {
+            return this.values[index];
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.train.gccn.model.trustscheme;
+
+import com.train.gccn.model.trustlist.ServiceRecord;
+import com.train.gccn.model.trustlist.TSPRecord;
+import com.train.gccn.model.trustlist.TrustList;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * {@link TslEntry} backed by the parsed {@link TrustList} of a {@link TrustScheme}.
+ * Provides the same fields as {@link EidasTslEntry}.
+ */
+public class TrustListTslEntry implements TslEntry {
+    
+    private static final String SVCINFO_ESIGNATURES = "http://uri.etsi.org/TrstSvc/TrustedList/SvcInfoExt/ForeSignatures";
+    private static final String SVCINFO_WEBAUTH = "http://uri.etsi.org/TrstSvc/TrustedList/SvcInfoExt/ForWebSiteAuthentication";
+    private static final String SVCINFO_ESEALS = "http://uri.etsi.org/TrstSvc/TrustedList/SvcInfoExt/ForeSeals";
+    private final TrustList trustList;
+    private final TSPRecord provider;
+    private final ServiceRecord service;
+    private final String schemeId;
+    
+    public TrustListTslEntry(TrustList trustList, TSPRecord provider, ServiceRecord service, String schemeId) {
+        this.trustList = trustList;
+        this.provider = provider;
+        this.service = service;
+        this.schemeId = schemeId;
+    }
+    
+    @Override
+    public X509Certificate getCertificate() {
+        return this.service.getCertificate();
+    }
+    
+    @Override
+    public String getField(String field) {
+        switch(field) {
+            case "tlCountryCode":
+                return this.trustList.getSchemeTerritory();
+            case "tspName":
+                return this.provider.getName();
+            case "serviceStatus":
+                return this.service.getServiceStatus();
+            case "serviceType":
+                return this.getServiceType();
+            case "serviceName":
+                return this.service.getServiceName();
+            case "serviceAdditionalServiceInfoUris":
+                return this.service.getAdditionalServiceInfoURIs().toString();
+            case "serviceAdditionalServiceInfo":
+                return this.getServiceInfo();
+            default:
+                return null;
+        }
+    }
+    
+    private String getServiceInfo() {
+        List<String> infos = this.service.getAdditionalServiceInfoURIs();
+        
+        if(infos.contains(TrustListTslEntry.SVCINFO_ESIGNATURES)) {
+            return "for_esignatures";
+        }
+        if(infos.contains(TrustListTslEntry.SVCINFO_WEBAUTH)) {
+            return "for_webauth";
+        }
+        if(infos.contains(TrustListTslEntry.SVCINFO_ESEALS)) {
+            return "for_eseals";
+        }
+        
+        return infos.toString();
+    }
+    
+    private String getServiceType() {
+        String type = this.service.getServiceTypeIdentifier();
+        if(type == null) {
+            return null;
+        }
+        switch(type) {
+            case "http://uri.etsi.org/TrstSvc/Svctype/CA/QC":
+                return "qualified_certificate_authority";
+            case "http://TrustSchemePumpkinOilFederation.com/ServiceTypes/buyers/":
+            case "http://TrustSchemePumpkinOilFederation.com/ServiceTypes/buyers":
+                return "qualified_pof_buyer";
+            default:
+                return type;
+        }
+    }
+    
+    @Override
+    public boolean fieldExists(String field) {
+        return this.getField(field) != null;
+    }
+    
+    @Override
+    public String getServiceName() {
+        return this.service.getServiceName();
+    }
+    
+    @Override
+    public String getSchemeId() {
+        return this.schemeId;
+    }
+    
+    @Override
+    public String toString() {
+        return "TrustListTslEntry{" + "\n" +
+                "provider=" + this.provider + "\n" +
+                ", service=" + this.service + "\n" +
+                ", schemeId='" + this.schemeId + '\'' + "\n" +
+                '}';
+    }
+}
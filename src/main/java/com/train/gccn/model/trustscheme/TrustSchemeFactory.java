@@ -1,183 +1,368 @@
-package com.train.gccn.model.trustscheme;
-
-import com.train.gccn.ATVConfiguration;
-import com.train.gccn.exceptions.DNSException;
-import com.train.gccn.model.report.Report;
-import com.train.gccn.model.report.ReportStatus;
-import com.train.gccn.wrapper.DNSHelper;
-import com.train.gccn.wrapper.HTTPSHelper;
-import org.apache.log4j.Logger;
-
-import java.io.IOException;
-import java.net.URL;
-import java.util.List;
-
-public class TrustSchemeFactory {
-    
-    public static final String CLAIM_PREFIX = "_scheme._trust";
-    private static Logger logger = Logger.getLogger(TrustSchemeFactory.class);
-    private static DNSHelper dns;
-    
-    
-    public static TrustScheme createTrustScheme(TrustSchemeClaim claim, Report report) throws IOException, DNSException {
-        TrustSchemeFactory.dns = new DNSHelper();
-    
-        String schemeHostname = TrustSchemeFactory.discoverTrustScheme(claim, report);
-    
-        if(schemeHostname != null) {
-            //report.addLine("TrustScheme discovered.", ReportStatus.OK);
-            TrustSchemeFactory.logger.info("Found trust scheme: " + schemeHostname);
-        } else {
-            report.addLine("Trust Scheme discovery failed for claim " + claim + "!", ReportStatus.FAILED);
-            return null;
-        }
-    
-        String tslLocation = TrustSchemeFactory.discoverTrustList(schemeHostname, report);
-    
-        if(tslLocation != null) {
-            //report.addLine("TrustList discovered.", ReportStatus.OK);
-            TrustSchemeFactory.logger.info("Found trust list: " + tslLocation);
-        } else {
-            report.addLine("Trust Status List discovery failed for scheme " + schemeHostname + "!", ReportStatus.FAILED);
-            return null;
-        }
-    
-        String tslContent = TrustSchemeFactory.loadTrustList(schemeHostname, tslLocation, report);
-    
-        if(tslContent != null) {
-            report.addLine("Trust Status List discovered & loaded.", ReportStatus.OK);
-        } else {
-            report.addLine("Trust Status List loading failed from URL " + tslLocation, ReportStatus.FAILED);
-            return null;
-        }
-    
-        if(ATVConfiguration.get().getBoolean("dane_verification_enabled") == true) {
-            boolean tslValid = false;
-        
-            if(tslValid == true) {
-                report.addLine("Trust Status List Signature validation successful.", ReportStatus.OK);
-            } else {
-                report.addLine("Trust Status List Signature validation failed.", ReportStatus.FAILED);
-                return null;
-            }
-        } else {
-            TrustSchemeFactory.logger.warn("Trust Status List Signature validation disabled. ");
-        }
-    
-        TrustScheme scheme = new TrustScheme(tslLocation, schemeHostname, tslContent);
-        
-        return scheme;
-    }
-    
-   /* private static boolean verifyTrustList(String schemeHostname, String tslContent) throws IOException {
-        return SMIMEAHelper.verifyXMLdocument(schemeHostname, tslContent);
-        
-    } */
-    
-    private static String loadTrustList(String schemeHostname, String tslLocation, Report report) {
-        try {
-            System.out.println("tsl_location" + tslLocation);
-            HTTPSHelper https = new HTTPSHelper();
-            String trustlist = https.get(new URL(tslLocation));
-            //System.out.println("trust_list" + trustlist);
-            return trustlist;
-    
-        } catch(IOException e) {
-            TrustSchemeFactory.logger.error("Error loading Trust Status List: " + e.getMessage());
-            report.addLine("Error loading Trust Status List: " + e.getMessage(), ReportStatus.FAILED);
-            return null;
-        }
-    }
-    
-    private static String discoverTrustScheme(TrustSchemeClaim claim, Report report) {
-        TrustSchemeFactory.logger.info("Discovering TrustScheme for Claim: " + claim);
-        String hostname = TrustSchemeFactory.buildHostname(claim);
-        
-        String scheme_identifier = null;
-        List<String> schemes = null;
-        try {
-            schemes = TrustSchemeFactory.dns.queryPTR(hostname);
-
-            int numSchemes = schemes.size();
-        
-            if(numSchemes <= 0) {
-                TrustSchemeFactory.logger.info("found no schemes for this claim ...");
-                report.addLine("Found no Trust Scheme for given Claim.", ReportStatus.FAILED);
-                return null;
-            }
-            
-            for(String scheme : schemes) {
-                TrustSchemeFactory.logger.info("found trust scheme: " + schemes);
-                report.addLine("Found Trust Scheme:" + scheme, ReportStatus.OK);
-            }
-            
-            if(numSchemes > 1) {
-                TrustSchemeFactory.logger.warn(numSchemes + " schemes found, but currently only 1 supported. Returning first ...");
-            }
-        } catch(IOException | DNSException e) {
-            TrustSchemeFactory.logger.error("Error discovering trust scheme: " + e.getMessage());
-            report.addLine("Error discovering Trust Scheme: " + e.getMessage(), ReportStatus.FAILED);
-            return null;
-        }
-        
-        // int numSchemes = schemes.size();
-        
-        // if(numSchemes <= 0) {
-        //     TrustSchemeFactory.logger.info("found no schemes for this claim ...");
-        //     report.addLine("Found no Trust Scheme for given Claim.", ReportStatus.FAILED);
-        //     return null;
-        // }
-        
-        // for(String scheme : schemes) {
-        //     TrustSchemeFactory.logger.info("found trust scheme: " + schemes);
-        // }
-        
-        // if(numSchemes > 1) {
-        //     TrustSchemeFactory.logger.warn(numSchemes + " schemes found, but currently only 1 supported. Returning first ...");
-        // }
-        
-        return schemes.get(0);
-    }
-    
-    private static String buildHostname(TrustSchemeClaim claim) {
-        String claimhost = claim.getClaim();
-        if(claimhost.startsWith(TrustSchemeFactory.CLAIM_PREFIX)) {
-            return claimhost;
-        } else {
-            return TrustSchemeFactory.CLAIM_PREFIX + "." + claimhost;
-        }
-    }
-    
-    private static String discoverTrustList(String schemeHostname, Report report) {
-        TrustSchemeFactory.logger.info("Discovering TrustList for Scheme: " + schemeHostname);
-        
-        String tsl_location = null;
-        List<String> lists = null;
-        try {
-            lists = TrustSchemeFactory.dns.queryURI(schemeHostname);
-        } catch(IOException | DNSException e) {
-            TrustSchemeFactory.logger.error("Error discovering Trust Status List: " + e.getMessage());
-            report.addLine("Error discovering Trust Status List: " + e.getMessage(), ReportStatus.FAILED);
-            return null;
-        }
-        
-        int numLists = lists.size();
-        
-        if(numLists <= 0) {
-            TrustSchemeFactory.logger.info("found no trust lists for this scheme ...");
-            report.addLine("Found no Trust Status List for given Trust Scheme.", ReportStatus.FAILED);
-            return null;
-        }
-        
-        for(String tsl : lists) {
-            TrustSchemeFactory.logger.info("found list: " + tsl);
-            report.addLine("Found Trust List:" + tsl, ReportStatus.OK);
-        }
-        
-        if(numLists > 1) {
-            TrustSchemeFactory.logger.warn(numLists + " trust lists found, but currently only 1 supported. Returning first ...");
-        }
-        
-        return lists.get(0);
-    }
-}
+package com.train.gccn.model.trustscheme;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.exceptions.DNSException;
+import com.train.gccn.model.Deadline;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.report.ReportStatus;
+import com.train.gccn.wrapper.DNSHelper;
+import com.train.gccn.wrapper.HTTPSHelper;
+import com.train.gccn.wrapper.SMIMEAcert;
+import com.train.gccn.wrapper.XMLSignatureHelper;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class TrustSchemeFactory {
+    
+    public static final String CLAIM_PREFIX = "_scheme._trust";
+    public static final String SMIMEA_PREFIX = "_smimecert";
+    private static Logger logger = Logger.getLogger(TrustSchemeFactory.class);
+    // loaded & checked schemes by claim; lifetime configured via trustscheme_cache_ttl (in seconds)
+    private static final Cache<TrustSchemeClaim, TrustScheme> schemes = CacheBuilder.newBuilder()
+            .expireAfterWrite(ATVConfiguration.get().getLong("trustscheme_cache_ttl", 300), TimeUnit.SECONDS)
+            .maximumSize(ATVConfiguration.get().getLong("trustscheme_cache_size", 256))
+            .build();
+    
+    
+    public static TrustScheme createTrustScheme(TrustSchemeClaim claim, Report report) throws IOException, DNSException {
+        return TrustSchemeFactory.createTrustScheme(claim, report, Deadline.fromConfig());
+    }
+    
+    /**
+     * Discover and load the trust scheme of the given claim, using at most the remaining budget of <code>deadline</code>.
+     */
+    public static TrustScheme createTrustScheme(TrustSchemeClaim claim, Report report, Deadline deadline) throws IOException, DNSException {
+        TrustScheme cached = TrustSchemeFactory.getCachedTrustScheme(claim, report);
+        if(cached != null) {
+            return cached;
+        }
+        
+        DNSHelper dns = new DNSHelper();
+        dns.setDeadline(deadline);
+    
+        String schemeHostname = TrustSchemeFactory.discoverTrustScheme(dns, claim, report);
+    
+        if(schemeHostname != null) {
+            //report.addLine("TrustScheme discovered.", ReportStatus.OK);
+            TrustSchemeFactory.logger.info("Found trust scheme: " + schemeHostname);
+        } else {
+            report.addLine("Trust Scheme discovery failed for claim " + claim + "!", ReportStatus.FAILED);
+            return null;
+        }
+    
+        String tslLocation = TrustSchemeFactory.discoverTrustList(dns, schemeHostname, report);
+    
+        if(tslLocation != null) {
+            //report.addLine("TrustList discovered.", ReportStatus.OK);
+            TrustSchemeFactory.logger.info("Found trust list: " + tslLocation);
+        } else {
+            report.addLine("Trust Status List discovery failed for scheme " + schemeHostname + "!", ReportStatus.FAILED);
+            return null;
+        }
+    
+        String tslContent = TrustSchemeFactory.loadTrustList(schemeHostname, tslLocation, report, deadline);
+    
+        if(tslContent != null) {
+            report.addLine("Trust Status List discovered & loaded.", ReportStatus.OK);
+        } else {
+            report.addLine("Trust Status List loading failed from URL " + tslLocation, ReportStatus.FAILED);
+            return null;
+        }
+    
+        if(!TrustSchemeFactory.checkTrustList(schemeHostname, tslContent, report, deadline)) {
+            return null;
+        }
+    
+        TrustScheme scheme = new TrustScheme(tslLocation, schemeHostname, tslContent);
+        scheme.setSignatureVerified(TrustSchemeFactory.isTrustListVerificationEnabled());
+        TrustSchemeFactory.cacheTrustScheme(claim, scheme);
+        
+        return scheme;
+    }
+    
+    /**
+     * @return the scheme of a previous, successful discovery of this claim, or <code>null</code>.
+     */
+    public static TrustScheme getCachedTrustScheme(TrustSchemeClaim claim, Report report) {
+        TrustScheme scheme = TrustSchemeFactory.schemes.getIfPresent(claim);
+        if(scheme != null) {
+            TrustSchemeFactory.logger.info("Using cached trust scheme for claim " + claim + ": " + scheme.getSchemeIdentifier());
+            report.addLine("Trust Status List of " + scheme.getSchemeIdentifierCleaned() + " loaded from cache.", ReportStatus.OK);
+        }
+        return scheme;
+    }
+    
+    public static void cacheTrustScheme(TrustSchemeClaim claim, TrustScheme scheme) {
+        TrustSchemeFactory.schemes.put(claim, scheme);
+    }
+    
+    /**
+     * @return <code>true</code> if {@link #checkTrustList} verifies signatures, i.e. a list that passed it was verified.
+     */
+    public static boolean isTrustListVerificationEnabled() {
+        return ATVConfiguration.get().getBoolean("dane_verification_enabled");
+    }
+    
+    /**
+     * Signature check of a loaded Trust Status List, if enabled via <code>dane_verification_enabled</code>.
+     * The list must be signed by a signer published via SMIMEA at the scheme.
+     *
+     * @return <code>false</code> if the list must not be used.
+     */
+    public static boolean checkTrustList(String schemeHostname, String tslContent, Report report, Deadline deadline) {
+        if(TrustSchemeFactory.isTrustListVerificationEnabled()) {
+            boolean tslValid = false;
+            try {
+                tslValid = TrustSchemeFactory.verifyTrustList(schemeHostname, tslContent, deadline);
+            } catch(IOException | DNSException e) {
+                TrustSchemeFactory.reportVerificationError(e, report);
+            }
+        
+            return TrustSchemeFactory.reportVerification(tslValid, report);
+        } else {
+            TrustSchemeFactory.logger.warn("Trust Status List Signature validation disabled. ");
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Non-blocking variant of {@link #checkTrustList(String, String, Report, Deadline)}.
+     * The signature is verified on <code>executor</code>.
+     */
+    public static CompletableFuture<Boolean> checkTrustListAsync(String schemeHostname, String tslContent, Report report,
+                                                                 Deadline deadline, Executor executor) {
+        if(!TrustSchemeFactory.isTrustListVerificationEnabled()) {
+            TrustSchemeFactory.logger.warn("Trust Status List Signature validation disabled. ");
+            return CompletableFuture.completedFuture(true);
+        }
+        
+        DNSHelper dns;
+        try {
+            dns = new DNSHelper();
+        } catch(IOException e) {
+            TrustSchemeFactory.reportVerificationError(e, report);
+            return CompletableFuture.completedFuture(TrustSchemeFactory.reportVerification(false, report));
+        }
+        dns.setDeadline(deadline);
+        
+        String signerHostname = TrustSchemeFactory.SMIMEA_PREFIX + "." + schemeHostname;
+        return dns.querySMIMEAAsync(signerHostname)
+                .thenApplyAsync(signers -> {
+                    TrustSchemeFactory.logger.info("Found " + signers.size() + " SMIMEA record(s) at " + signerHostname);
+                    return XMLSignatureHelper.verify(tslContent, signers);
+                }, executor)
+                .handle((tslValid, e) -> {
+                    if(e != null) {
+                        TrustSchemeFactory.reportVerificationError(TrustSchemeFactory.unwrap(e), report);
+                    }
+                    return TrustSchemeFactory.reportVerification(e == null && tslValid, report);
+                });
+    }
+    
+    private static void reportVerificationError(Throwable e, Report report) {
+        TrustSchemeFactory.logger.error("Error verifying Trust Status List: " + e.getMessage());
+        report.addLine("Error verifying Trust Status List: " + e.getMessage(), ReportStatus.FAILED);
+    }
+    
+    private static boolean reportVerification(boolean tslValid, Report report) {
+        if(tslValid == true) {
+            report.addLine("Trust Status List Signature validation successful.", ReportStatus.OK);
+            return true;
+        } else {
+            report.addLine("Trust Status List Signature validation failed.", ReportStatus.FAILED);
+            return false;
+        }
+    }
+    
+    private static boolean verifyTrustList(String schemeHostname, String tslContent, Deadline deadline) throws IOException, DNSException {
+        DNSHelper dns = new DNSHelper();
+        dns.setDeadline(deadline);
+        
+        String signerHostname = TrustSchemeFactory.SMIMEA_PREFIX + "." + schemeHostname;
+        List<SMIMEAcert> signers = dns.querySMIMEA(signerHostname);
+        TrustSchemeFactory.logger.info("Found " + signers.size() + " SMIMEA record(s) at " + signerHostname);
+        
+        return XMLSignatureHelper.verify(tslContent, signers);
+    }
+    
+    public static String loadTrustList(String schemeHostname, String tslLocation, Report report, Deadline deadline) {
+        try {
+            System.out.println("tsl_location" + tslLocation);
+            HTTPSHelper https = new HTTPSHelper();
+            https.setDeadline(deadline);
+            String trustlist = https.get(new URL(tslLocation));
+            //System.out.println("trust_list" + trustlist);
+            return trustlist;
+    
+        } catch(IOException e) {
+            TrustSchemeFactory.reportLoadError(e, report);
+            return null;
+        }
+    }
+    
+    /**
+     * Non-blocking variant of {@link #loadTrustList(String, String, Report, Deadline)}.
+     */
+    public static CompletableFuture<String> loadTrustListAsync(String schemeHostname, String tslLocation, Report report, Deadline deadline) {
+        URL url;
+        try {
+            url = new URL(tslLocation);
+        } catch(IOException e) {
+            TrustSchemeFactory.reportLoadError(e, report);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        HTTPSHelper https = new HTTPSHelper();
+        https.setDeadline(deadline);
+        return https.getAsync(url).handle((trustlist, e) -> {
+            if(e != null) {
+                TrustSchemeFactory.reportLoadError(TrustSchemeFactory.unwrap(e), report);
+                return null;
+            }
+            return trustlist;
+        });
+    }
+    
+    private static void reportLoadError(Throwable e, Report report) {
+        TrustSchemeFactory.logger.error("Error loading Trust Status List: " + e.getMessage());
+        report.addLine("Error loading Trust Status List: " + e.getMessage(), ReportStatus.FAILED);
+    }
+    
+    public static String discoverTrustScheme(DNSHelper dns, TrustSchemeClaim claim, Report report) {
+        TrustSchemeFactory.logger.info("Discovering TrustScheme for Claim: " + claim);
+        String hostname = TrustSchemeFactory.buildHostname(claim);
+        
+        List<String> schemes = null;
+        try {
+            schemes = dns.queryPTR(hostname);
+        } catch(IOException | DNSException e) {
+            TrustSchemeFactory.reportSchemeError(e, report);
+            return null;
+        }
+        
+        return TrustSchemeFactory.selectTrustScheme(schemes, report);
+    }
+    
+    /**
+     * Non-blocking variant of {@link #discoverTrustScheme(DNSHelper, TrustSchemeClaim, Report)}.
+     */
+    public static CompletableFuture<String> discoverTrustSchemeAsync(DNSHelper dns, TrustSchemeClaim claim, Report report) {
+        TrustSchemeFactory.logger.info("Discovering TrustScheme for Claim: " + claim);
+        String hostname = TrustSchemeFactory.buildHostname(claim);
+        
+        return dns.queryPTRAsync(hostname).handle((schemes, e) -> {
+            if(e != null) {
+                TrustSchemeFactory.reportSchemeError(TrustSchemeFactory.unwrap(e), report);
+                return null;
+            }
+            return TrustSchemeFactory.selectTrustScheme(schemes, report);
+        });
+    }
+    
+    private static void reportSchemeError(Throwable e, Report report) {
+        TrustSchemeFactory.logger.error("Error discovering trust scheme: " + e.getMessage());
+        report.addLine("Error discovering Trust Scheme: " + e.getMessage(), ReportStatus.FAILED);
+    }
+    
+    private static String selectTrustScheme(List<String> schemes, Report report) {
+        int numSchemes = schemes.size();
+        
+        if(numSchemes <= 0) {
+            TrustSchemeFactory.logger.info("found no schemes for this claim ...");
+            report.addLine("Found no Trust Scheme for given Claim.", ReportStatus.FAILED);
+            return null;
+        }
+        
+        for(String scheme : schemes) {
+            TrustSchemeFactory.logger.info("found trust scheme: " + schemes);
+            report.addLine("Found Trust Scheme:" + scheme, ReportStatus.OK);
+        }
+        
+        if(numSchemes > 1) {
+            TrustSchemeFactory.logger.warn(numSchemes + " schemes found, but currently only 1 supported. Returning first ...");
+        }
+        
+        return schemes.get(0);
+    }
+    
+    private static String buildHostname(TrustSchemeClaim claim) {
+        String claimhost = claim.getClaim();
+        if(claimhost.startsWith(TrustSchemeFactory.CLAIM_PREFIX)) {
+            return claimhost;
+        } else {
+            return TrustSchemeFactory.CLAIM_PREFIX + "." + claimhost;
+        }
+    }
+    
+    public static String discoverTrustList(DNSHelper dns, String schemeHostname, Report report) {
+        TrustSchemeFactory.logger.info("Discovering TrustList for Scheme: " + schemeHostname);
+        
+        List<String> lists = null;
+        try {
+            lists = dns.queryURI(schemeHostname);
+        } catch(IOException | DNSException e) {
+            TrustSchemeFactory.reportListError(e, report);
+            return null;
+        }
+        
+        return TrustSchemeFactory.selectTrustList(lists, report);
+    }
+    
+    /**
+     * Non-blocking variant of {@link #discoverTrustList(DNSHelper, String, Report)}.
+     */
+    public static CompletableFuture<String> discoverTrustListAsync(DNSHelper dns, String schemeHostname, Report report) {
+        TrustSchemeFactory.logger.info("Discovering TrustList for Scheme: " + schemeHostname);
+        
+        return dns.queryURIAsync(schemeHostname).handle((lists, e) -> {
+            if(e != null) {
+                TrustSchemeFactory.reportListError(TrustSchemeFactory.unwrap(e), report);
+                return null;
+            }
+            return TrustSchemeFactory.selectTrustList(lists, report);
+        });
+    }
+    
+    private static void reportListError(Throwable e, Report report) {
+        TrustSchemeFactory.logger.error("Error discovering Trust Status List: " + e.getMessage());
+        report.addLine("Error discovering Trust Status List: " + e.getMessage(), ReportStatus.FAILED);
+    }
+    
+    private static String selectTrustList(List<String> lists, Report report) {
+        int numLists = lists.size();
+        
+        if(numLists <= 0) {
+            TrustSchemeFactory.logger.info("found no trust lists for this scheme ...");
+            report.addLine("Found no Trust Status List for given Trust Scheme.", ReportStatus.FAILED);
+            return null;
+        }
+        
+        for(String tsl : lists) {
+            TrustSchemeFactory.logger.info("found list: " + tsl);
+            report.addLine("Found Trust List:" + tsl, ReportStatus.OK);
+        }
+        
+        if(numLists > 1) {
+            TrustSchemeFactory.logger.warn(numLists + " trust lists found, but currently only 1 supported. Returning first ...");
+        }
+        
+        return lists.get(0);
+    }
+    
+    /**
+     * @return the cause of a failed future stage.
+     */
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,152 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.model.Deadline;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.report.ReportStatus;
+import com.train.gccn.model.trustscheme.TrustScheme;
+import com.train.gccn.model.trustscheme.TrustSchemeClaim;
+import com.train.gccn.model.trustscheme.TrustSchemeFactory;
+import com.train.gccn.wrapper.DNSHelper;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking variant of the {@link VerificationPipeline}.
+ * <p>
+ * Discovery and loading are composed from asynchronous DNS ({@link DNSHelper#queryAsync(String, int)}) and HTTP
+ * ({@link com.train.gccn.wrapper.HTTPSHelper#getAsync(java.net.URL)}) stages, so the calling thread does not wait for
+ * the network. The I/O itself still blocks threads, but bounded ones: DNS lookups run on the <code>dns_threads</code>
+ * pool, HTTP requests on OkHttp's dispatcher (at most 64 at a time). Only CPU-bound work (signature check, parsing)
+ * runs on the executor, a fixed pool of <code>async_threads</code> threads unless replaced via
+ * {@link #setExecutor(Executor)}.
+ */
+public class AsyncVerification {
+    
+    private static Logger logger = Logger.getLogger(AsyncVerification.class);
+    private static Executor executor = null;
+    
+    private AsyncVerification() {
+        // static class
+    }
+    
+    public static synchronized Executor getExecutor() {
+        if(AsyncVerification.executor == null) {
+            int threads = ATVConfiguration.get().getInt("async_threads", Runtime.getRuntime().availableProcessors());
+            AtomicInteger counter = new AtomicInteger();
+            AsyncVerification.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "pipeline-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            AsyncVerification.logger.info("Async verification: " + threads + " thread(s)");
+        }
+        return AsyncVerification.executor;
+    }
+    
+    /**
+     * Use the given executor (e.g. the one of a reactive framework) for all further requests.
+     */
+    public static synchronized void setExecutor(Executor executor) {
+        AsyncVerification.executor = executor;
+    }
+    
+    /**
+     * Like {@link VerificationPipeline#submit(TrustSchemeClaim, Report, Deadline)}: completes with the context once
+     * the trust list is parsed, or with <code>getScheme() == null</code> if discovery or loading failed.
+     */
+    public static CompletableFuture<VerificationContext> verify(TrustSchemeClaim claim, Report report, Deadline deadline) {
+        Executor executor = AsyncVerification.getExecutor();
+        VerificationContext context = new VerificationContext(claim, report, deadline);
+        
+        TrustScheme cached = TrustSchemeFactory.getCachedTrustScheme(claim, report);
+        if(cached != null) {
+            context.setSchemeHostname(cached.getSchemeIdentifier());
+            context.setTSLlocation(cached.getTSLlocation());
+            context.setScheme(cached);
+            return CompletableFuture.supplyAsync(() -> AsyncVerification.parse(context), executor);
+        }
+        
+        DNSHelper dns;
+        try {
+            dns = new DNSHelper();
+        } catch(IOException | RuntimeException e) {
+            CompletableFuture<VerificationContext> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        dns.setDeadline(deadline);
+        
+        return TrustSchemeFactory.discoverTrustSchemeAsync(dns, claim, report).thenCompose(schemeHostname -> {
+            if(schemeHostname == null) {
+                report.addLine("Trust Scheme discovery failed for claim " + claim + "!", ReportStatus.FAILED);
+                return CompletableFuture.completedFuture(context);
+            }
+            AsyncVerification.logger.info("Found trust scheme: " + schemeHostname);
+            context.setSchemeHostname(schemeHostname);
+            
+            return TrustSchemeFactory.discoverTrustListAsync(dns, schemeHostname, report).thenCompose(tslLocation -> {
+                if(tslLocation == null) {
+                    report.addLine("Trust Status List discovery failed for scheme " + schemeHostname + "!", ReportStatus.FAILED);
+                    return CompletableFuture.completedFuture(context);
+                }
+                AsyncVerification.logger.info("Found trust list: " + tslLocation);
+                context.setTSLlocation(tslLocation);
+                
+                return AsyncVerification.load(context, executor);
+            });
+        });
+    }
+    
+    private static CompletableFuture<VerificationContext> load(VerificationContext context, Executor executor) {
+        Report report = context.getReport();
+        
+        return TrustSchemeFactory.loadTrustListAsync(context.getSchemeHostname(), context.getTSLlocation(), report, context.getDeadline())
+                .thenCompose(tslContent -> {
+                    if(tslContent == null) {
+                        report.addLine("Trust Status List loading failed from URL " + context.getTSLlocation(), ReportStatus.FAILED);
+                        return CompletableFuture.completedFuture(context);
+                    }
+                    report.addLine("Trust Status List discovered & loaded.", ReportStatus.OK);
+                    
+                    return TrustSchemeFactory.checkTrustListAsync(context.getSchemeHostname(), tslContent, report, context.getDeadline(), executor)
+                            .thenApplyAsync(valid -> {
+                                if(!valid) {
+                                    return context;
+                                }
+                                context.setTSLcontent(tslContent);
+                                return AsyncVerification.parse(context);
+                            }, executor);
+                });
+    }
+    
+    private static VerificationContext parse(VerificationContext context) {
+        try {
+            context.getDeadline().check("parsing");
+            VerificationPipeline.parse(context);
+            return context;
+        } catch(Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+    
+    /**
+     * For {@link CompletableFuture#handle} callbacks: returns <code>context</code>, or throws the cause of <code>failure</code>.
+     */
+    public static VerificationContext result(VerificationContext context, Throwable failure) throws Exception {
+        if(failure == null) {
+            return context;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if(cause instanceof Exception) {
+            throw (Exception) cause;
+        }
+        throw new CompletionException(cause);
+    }
+}
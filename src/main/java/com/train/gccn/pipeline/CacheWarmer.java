@@ -0,0 +1,91 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.model.Deadline;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.trustscheme.TrustSchemeClaim;
+import org.apache.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Startup warm-up of the discovery caches.
+ * <p>
+ * Resolves all configured <code>trustscheme_claim.*</code> claims in parallel through the {@link VerificationPipeline},
+ * which fills the DNS, HTTP and trust scheme caches and parses & indexes each trust list once.
+ * The service should call {@link #warmUp()} before reporting ready,
+ * so the first requests after a deploy do not pay for a cold discovery.
+ * <p>
+ * Disabled via <code>warmup_enabled = false</code>; the time budget is configured via <code>warmup_timeout</code> (in seconds).
+ */
+public class CacheWarmer {
+    
+    private static Logger logger = Logger.getLogger(CacheWarmer.class);
+    private static volatile boolean ready = false;
+    
+    private CacheWarmer() {
+        // static class
+    }
+    
+    /**
+     * @return <code>true</code> once {@link #warmUp()} finished (successful or not).
+     */
+    public static boolean isReady() {
+        return CacheWarmer.ready;
+    }
+    
+    /**
+     * Resolve all configured claims, blocking until done or until <code>warmup_timeout</code> expired.
+     *
+     * @return <code>true</code> if every claim was resolved.
+     */
+    public static boolean warmUp() {
+        try {
+            if(!ATVConfiguration.get().getBoolean("warmup_enabled", true)) {
+                CacheWarmer.logger.info("Cache warm-up disabled.");
+                return true;
+            }
+            return CacheWarmer.resolveAll(new TreeSet<>(ATVConfiguration.getForPrefix("trustscheme_claim").values()));
+        } finally {
+            CacheWarmer.ready = true;
+        }
+    }
+    
+    private static boolean resolveAll(Iterable<String> claims) {
+        Deadline deadline = Deadline.after(ATVConfiguration.get().getLong("warmup_timeout", 120), TimeUnit.SECONDS);
+        Map<String, CompletableFuture<VerificationContext>> pending = new LinkedHashMap<>();
+        
+        for(String claim : claims) {
+            CacheWarmer.logger.info("Warming up claim " + claim + " ...");
+            pending.put(claim, VerificationPipeline.get().submit(new TrustSchemeClaim(claim), new Report(), deadline));
+        }
+        
+        int numResolved = 0;
+        for(Map.Entry<String, CompletableFuture<VerificationContext>> entry : pending.entrySet()) {
+            try {
+                VerificationContext context = entry.getValue().get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+                if(context.getScheme() != null) {
+                    context.getTrustList().getIndex();
+                    numResolved++;
+                } else {
+                    CacheWarmer.logger.warn("Warm-up of claim " + entry.getKey() + " failed: scheme not found.");
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                CacheWarmer.logger.warn("Warm-up interrupted.");
+                return false;
+            } catch(ExecutionException | TimeoutException e) {
+                CacheWarmer.logger.warn("Warm-up of claim " + entry.getKey() + " failed: " + e);
+            }
+        }
+        
+        CacheWarmer.logger.info("Warm-up done: " + numResolved + " of " + pending.size() + " claim(s) resolved.");
+        return numResolved == pending.size();
+    }
+}
@@ -0,0 +1,98 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.trustlist.NameMatch;
+import com.train.gccn.model.trustlist.TSPRecord;
+import com.train.gccn.model.trustlist.TrustList;
+import com.train.gccn.model.trustscheme.TrustScheme;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Looks up an issuer in the claim's trust list by a {@link MatchKey} and projects the first match (in document order)
+ * into the response. Outcomes are cached per <code>name</code>, key and issuer.
+ * <p>
+ * If a name is not listed, the most similar names of the list are reported (unless
+ * <code>issuer_mismatch_suggestions = 0</code> or the report has no observers, as in batch verification), see
+ * {@link com.train.gccn.model.trustlist.NameSearchIndex}.
+ */
+public class IssuerVerification<R> implements Verification<R> {
+    
+    /**
+     * Copies the fields of interest into a response.
+     */
+    public interface Projection<R> {
+        
+        /**
+         * @param provider the first matching provider, or <code>null</code> if the issuer is not listed.
+         */
+        void project(R response, TrustScheme scheme, TSPRecord provider, Report report);
+    }
+    
+    private final String name;
+    private final String issuer;
+    private final String claim;
+    private final MatchKey key;
+    private final Supplier<R> factory;
+    private final Projection<R> projection;
+    
+    /**
+     * @param name    the kind of response, to keep cached outcomes of different projections apart.
+     * @param factory creates the response for an unresolved claim.
+     */
+    public IssuerVerification(String name, String issuer, String claim, MatchKey key, Supplier<R> factory, Projection<R> projection) {
+        this.name = name;
+        this.issuer = issuer;
+        this.claim = claim;
+        this.key = key;
+        this.factory = factory;
+        this.projection = projection;
+    }
+    
+    public String getIssuer() {
+        return this.issuer;
+    }
+    
+    @Override
+    public String getClaim() {
+        return this.claim;
+    }
+    
+    @Override
+    public R newResponse() {
+        return this.factory.get();
+    }
+    
+    @Override
+    public void apply(R response, VerificationContext context, Report report) {
+        TrustList trustList = context.getTrustList();
+        List<TSPRecord> TSPs = this.key.find(trustList, this.issuer);
+        report.addLine("Providers in list: " + trustList.getProviders().size() + ", matching issuer: " + TSPs.size());
+        
+        TSPRecord TSP = null;
+        if(!TSPs.isEmpty()) {
+            TSP = TSPs.get(0);
+            report.addLine("Issuer (extracted): " + this.key.getValue(TSP));
+        } else if(this.issuer != null && this.key != MatchKey.ENTITY_IDENTIFIER_URI && report.countObservers() > 0) {
+            int suggestions = ATVConfiguration.get().getInt("issuer_mismatch_suggestions", 3);
+            List<NameMatch> similar = suggestions < 1 ? null : trustList.getNameIndex().similar(this.issuer, suggestions,
+                    ATVConfiguration.get().getDouble("name_search_min_similarity", 0.3));
+            if(similar != null && !similar.isEmpty()) {
+                report.addLine("Issuer not listed, closest names: " + similar);
+            }
+        }
+        this.projection.project(response, context.getScheme(), TSP, report);
+    }
+    
+    @Override
+    public String getResultKey() {
+        return this.name + "|" + this.key + "|" + this.issuer;
+    }
+    
+    @Override
+    public String toString() {
+        return "IssuerVerification{" + this.name + ": " + this.issuer + " @ " + this.claim + "}";
+    }
+}
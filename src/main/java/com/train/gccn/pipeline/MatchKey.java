@@ -0,0 +1,44 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.model.trustlist.TSPRecord;
+import com.train.gccn.model.trustlist.TrustList;
+import com.train.gccn.model.trustlist.TrustListIndex;
+
+import java.util.List;
+
+/**
+ * Provider field an {@link IssuerVerification} matches the issuer against, via the list's {@link TrustListIndex}.
+ */
+public enum MatchKey {
+    LEGAL_NAME,
+    ISSUER_NAME,
+    ENTITY_IDENTIFIER_URI;
+    
+    /**
+     * @return the matching providers in document order; normalized as configured by <code>issuer_match_normalized</code>.
+     */
+    public List<TSPRecord> find(TrustList list, String value) {
+        boolean normalized = ATVConfiguration.get().getBoolean("issuer_match_normalized", false);
+        TrustListIndex index = list.getIndex();
+        switch(this) {
+            case LEGAL_NAME:
+                return index.findByLegalName(value, normalized);
+            case ISSUER_NAME:
+                return index.findByIssuerName(value, normalized);
+            default:
+                return index.findByEntityIdentifierURI(value, normalized);
+        }
+    }
+    
+    public String getValue(TSPRecord provider) {
+        switch(this) {
+            case LEGAL_NAME:
+                return provider.getLegalName();
+            case ISSUER_NAME:
+                return provider.getIssuerName();
+            default:
+                return provider.getEntityIdentifierURI();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.exceptions.DeadlineExceededException;
+import com.train.gccn.model.Deadline;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single stage of the {@link VerificationPipeline}:
+ * a fixed number of worker threads in front of a bounded queue.
+ * <p>
+ * If the queue is full, {@link #submit(Runnable)} blocks until a slot is free.
+ * A saturated stage therefore slows down the stage (or client) feeding it, instead of creating more threads.
+ * {@link #submit(Runnable, Deadline)} gives up once the request's deadline expired.
+ */
+public class PipelineStage {
+    
+    private static Logger logger = Logger.getLogger(PipelineStage.class);
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots; // running + queued tasks, the executor's queue is sized so it never rejects
+    
+    public PipelineStage(String name, int threads, int queueSize) {
+        this.name = name;
+        this.slots = new Semaphore(threads + queueSize);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads + queueSize), new StageThreadFactory(name));
+        
+        PipelineStage.logger.info("Stage " + name + ": " + threads + " thread(s), queue size " + queueSize);
+    }
+    
+    public String getName() {
+        return this.name;
+    }
+    
+    public void submit(Runnable task) {
+        try {
+            this.slots.acquire();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for pipeline stage " + this.name + ".", e);
+        }
+        this.execute(task);
+    }
+    
+    /**
+     * Like {@link #submit(Runnable)}, but waits for a free slot at most until <code>deadline</code> expires.
+     */
+    public void submit(Runnable task, Deadline deadline) throws DeadlineExceededException {
+        try {
+            if(!this.slots.tryAcquire(deadline.remainingMillis(), TimeUnit.MILLISECONDS)) {
+                throw new DeadlineExceededException("Deadline exceeded while waiting for pipeline stage " + this.name + ".");
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for pipeline stage " + this.name + ".", e);
+        }
+        this.execute(task);
+    }
+    
+    private void execute(Runnable task) {
+        try {
+            this.executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    this.slots.release();
+                }
+            });
+        } catch(RejectedExecutionException e) {
+            this.slots.release();
+            throw e;
+        }
+    }
+    
+    public int getQueuedTasks() {
+        return this.executor.getQueue().size();
+    }
+    
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+    
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.executor.awaitTermination(timeout, unit);
+    }
+    
+    private static class StageThreadFactory implements ThreadFactory {
+        
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        StageThreadFactory(String name) {
+            this.name = name;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "pipeline-" + this.name + "-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.model.report.Report;
+
+/**
+ * One request to the {@link VerificationEngine}: the claim to resolve and how to turn the resolved trust list into a
+ * response of type <code>R</code>.
+ * <p>
+ * See {@link IssuerVerification} for the issuer lookup used by the GCCN and SSI clients.
+ */
+public interface Verification<R> {
+    
+    String getClaim();
+    
+    /**
+     * @return a new response, returned as is if the claim cannot be resolved.
+     */
+    R newResponse();
+    
+    /**
+     * Fills <code>response</code> from the resolved trust list. Called only if a scheme was found.
+     */
+    void apply(R response, VerificationContext context, Report report) throws Exception;
+    
+    /**
+     * @return what distinguishes this request's outcome from others for the same claim and list version (e.g. kind
+     * and issuer), or <code>null</code> if the outcome is not to be cached.
+     */
+    default String getResultKey() {
+        return null;
+    }
+}
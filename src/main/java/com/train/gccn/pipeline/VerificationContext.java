@@ -0,0 +1,96 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.model.Deadline;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.trustlist.TrustList;
+import com.train.gccn.model.trustscheme.TrustScheme;
+import com.train.gccn.model.trustscheme.TrustSchemeClaim;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-request state handed from one {@link VerificationPipeline} stage to the next.
+ * <p>
+ * Each stage fills in its results and passes the context on. Stages of one request never run concurrently,
+ * so no further synchronization is needed.
+ */
+public class VerificationContext {
+    
+    private final TrustSchemeClaim claim;
+    private final Report report;
+    private final Deadline deadline;
+    private final CompletableFuture<VerificationContext> completion = new CompletableFuture<>();
+    private String schemeHostname;
+    private String tslLocation;
+    private String tslContent;
+    private TrustScheme scheme;
+    private TrustList trustList;
+    
+    public VerificationContext(TrustSchemeClaim claim, Report report, Deadline deadline) {
+        this.claim = claim;
+        this.report = report;
+        this.deadline = deadline;
+    }
+    
+    public TrustSchemeClaim getClaim() {
+        return this.claim;
+    }
+    
+    public Report getReport() {
+        return this.report;
+    }
+    
+    public Deadline getDeadline() {
+        return this.deadline;
+    }
+    
+    public String getSchemeHostname() {
+        return this.schemeHostname;
+    }
+    
+    void setSchemeHostname(String schemeHostname) {
+        this.schemeHostname = schemeHostname;
+    }
+    
+    public String getTSLlocation() {
+        return this.tslLocation;
+    }
+    
+    void setTSLlocation(String tslLocation) {
+        this.tslLocation = tslLocation;
+    }
+    
+    String getTSLcontent() {
+        return this.tslContent;
+    }
+    
+    void setTSLcontent(String tslContent) {
+        this.tslContent = tslContent;
+    }
+    
+    /**
+     * @return the discovered scheme, or <code>null</code> if discovery failed (details are in the report).
+     */
+    public TrustScheme getScheme() {
+        return this.scheme;
+    }
+    
+    void setScheme(TrustScheme scheme) {
+        this.scheme = scheme;
+    }
+    
+    /**
+     * @return the parsed Trust Status List of {@link #getScheme()}.
+     */
+    public TrustList getTrustList() {
+        return this.trustList;
+    }
+    
+    void setTrustList(TrustList trustList) {
+        this.trustList = trustList;
+    }
+    
+    CompletableFuture<VerificationContext> getCompletion() {
+        return this.completion;
+    }
+}
@@ -0,0 +1,134 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.model.Deadline;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.trustscheme.TrustScheme;
+import com.train.gccn.model.trustscheme.TrustSchemeClaim;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * Common core of the clients: resolves a {@link Verification}'s claim (synchronously via the
+ * {@link VerificationPipeline}, or via {@link AsyncVerification}), lets it build its response from the trust list and
+ * caches the outcome in a {@link VerificationResultCache}.
+ */
+public class VerificationEngine {
+    
+    private static Logger logger = Logger.getLogger(VerificationEngine.class);
+    private static VerificationEngine instance = null;
+    
+    private final VerificationResultCache results = new VerificationResultCache();
+    
+    private VerificationEngine() {
+    }
+    
+    public static synchronized VerificationEngine get() {
+        if(VerificationEngine.instance == null) {
+            VerificationEngine.instance = new VerificationEngine();
+        }
+        return VerificationEngine.instance;
+    }
+    
+    public <R> R verify(Verification<R> verification, Report report) {
+        R cached = this.cached(verification, report);
+        if(cached != null) {
+            return cached;
+        }
+        return this.respond(verification, report, () ->
+                VerificationPipeline.get().verify(new TrustSchemeClaim(verification.getClaim()), report, Deadline.fromConfig()));
+    }
+    
+    public <R> CompletableFuture<R> verifyAsync(Verification<R> verification, Report report) {
+        R cached = this.cached(verification, report);
+        if(cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return AsyncVerification.verify(new TrustSchemeClaim(verification.getClaim()), report, Deadline.fromConfig())
+                .handle((context, e) -> this.respond(verification, report, () -> AsyncVerification.result(context, e)));
+    }
+    
+    /**
+     * Batch variant of {@link #verify(Verification, Report)}, without report output.
+     * <p>
+     * Each distinct claim not answered from the cache is resolved once (all in parallel), then the responses are built
+     * in parallel.
+     *
+     * @return one response per verification, in input order.
+     */
+    public <R> List<R> verifyAll(List<? extends Verification<R>> verifications) {
+        Object[] responses = new Object[verifications.size()];
+        Set<String> claims = new LinkedHashSet<>();
+        for(int i = 0; i < responses.length; i++) {
+            Verification<R> verification = verifications.get(i);
+            responses[i] = this.results.get(verification);
+            if(responses[i] == null) {
+                claims.add(verification.getClaim());
+            }
+        }
+        
+        Map<String, VerificationContext> contexts;
+        try {
+            contexts = VerificationPipeline.get().verifyAll(claims, new Report(), Deadline.fromConfig());
+        } catch(IOException e) {
+            VerificationEngine.logger.error("Batch verification failed", e);
+            contexts = Collections.emptyMap();
+        }
+        VerificationEngine.logger.info("Batch of " + responses.length + " verification(s): resolved " + contexts.size()
+                + " of " + claims.size() + " claim(s)");
+        
+        Map<String, VerificationContext> resolved = contexts;
+        IntStream.range(0, responses.length).parallel().filter(i -> responses[i] == null).forEach(i -> {
+            Verification<R> verification = verifications.get(i);
+            responses[i] = this.respond(verification, new Report(), () -> {
+                VerificationContext context = resolved.get(verification.getClaim());
+                if(context == null) {
+                    throw new IOException("Did not find TrustScheme / TrustList");
+                }
+                return context;
+            });
+        });
+        
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(responses);
+        return list;
+    }
+    
+    private <R> R cached(Verification<R> verification, Report report) {
+        R cached = this.results.get(verification);
+        if(cached != null) {
+            report.addLine("Verification result loaded from cache.");
+        }
+        return cached;
+    }
+    
+    private <R> R respond(Verification<R> verification, Report report, Callable<VerificationContext> resolution) {
+        R response = verification.newResponse();
+        try {
+            VerificationContext context = resolution.call();
+            TrustScheme scheme = context.getScheme();
+            if(scheme == null) {
+                throw new IOException("Did not find TrustScheme / TrustList");
+            }
+            
+            report.addLine("TrustScheme Hostname: " + scheme.getSchemeIdentifierCleaned());
+            report.addLine("TrustList Location: " + scheme.getTSLlocation());
+            
+            verification.apply(response, context, report);
+            this.results.put(verification, scheme.getSchemeIdentifierCleaned(), context.getTrustList(), response);
+        } catch(Exception e) {
+            report.addLine("Checking identity failed: ");
+            report.addLine(e.getMessage());
+        }
+        return response;
+    }
+}
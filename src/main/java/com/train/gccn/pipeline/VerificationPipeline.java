@@ -0,0 +1,260 @@
+package com.train.gccn.pipeline;
+
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.exceptions.DeadlineExceededException;
+import com.train.gccn.model.Deadline;
+import com.train.gccn.model.report.Report;
+import com.train.gccn.model.report.ReportStatus;
+import com.train.gccn.model.trustscheme.TrustScheme;
+import com.train.gccn.model.trustscheme.TrustSchemeClaim;
+import com.train.gccn.model.trustscheme.TrustSchemeFactory;
+import com.train.gccn.wrapper.DNSHelper;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Staged version of {@link TrustSchemeFactory#createTrustScheme(TrustSchemeClaim, Report)}.
+ * <p>
+ * A verification request passes through three stages, each with its own executor and bounded queue:
+ * <ol>
+ * <li><b>discovery</b> (DNS-bound): claim &rarr; trust scheme (PTR) &rarr; trust list location (URI)</li>
+ * <li><b>loading</b> (network-bound): download and check the Trust Status List</li>
+ * <li><b>parsing</b> (CPU-bound): parse the Trust Status List</li>
+ * </ol>
+ * Claims with a cached scheme (see {@link TrustSchemeFactory#getCachedTrustScheme(TrustSchemeClaim, Report)})
+ * skip discovery and loading.
+ * <p>
+ * Stage sizes are configured via <code>pipeline.dns_threads</code>, <code>pipeline.http_threads</code>,
+ * <code>pipeline.parse_threads</code> and <code>pipeline.queue_size</code>.
+ */
+public class VerificationPipeline {
+    
+    private static Logger logger = Logger.getLogger(VerificationPipeline.class);
+    private static VerificationPipeline instance = null;
+    private final PipelineStage discovery;
+    private final PipelineStage loading;
+    private final PipelineStage parsing;
+    
+    public VerificationPipeline(int dnsThreads, int httpThreads, int parseThreads, int queueSize) {
+        this.discovery = new PipelineStage("discovery", dnsThreads, queueSize);
+        this.loading = new PipelineStage("loading", httpThreads, queueSize);
+        this.parsing = new PipelineStage("parsing", parseThreads, queueSize);
+    }
+    
+    public static synchronized VerificationPipeline get() {
+        if(VerificationPipeline.instance == null) {
+            VerificationPipeline.instance = new VerificationPipeline(
+                    ATVConfiguration.get().getInt("pipeline.dns_threads", 8),
+                    ATVConfiguration.get().getInt("pipeline.http_threads", 8),
+                    ATVConfiguration.get().getInt("pipeline.parse_threads", Runtime.getRuntime().availableProcessors()),
+                    ATVConfiguration.get().getInt("pipeline.queue_size", 64));
+        }
+        return VerificationPipeline.instance;
+    }
+    
+    /**
+     * Queue a claim for discovery.
+     * Blocks while the discovery stage is saturated, but not beyond <code>deadline</code>.
+     *
+     * @param deadline time budget of the whole request; every stage only uses what is left of it.
+     * @return completes with the context once all stages ran, or with <code>getScheme() == null</code> if a stage failed.
+     */
+    public CompletableFuture<VerificationContext> submit(TrustSchemeClaim claim, Report report, Deadline deadline) {
+        VerificationContext context = new VerificationContext(claim, report, deadline);
+        try {
+            TrustScheme cached = TrustSchemeFactory.getCachedTrustScheme(claim, report);
+            if(cached != null) {
+                // discovery & loading already done by an earlier request
+                context.setSchemeHostname(cached.getSchemeIdentifier());
+                context.setTSLlocation(cached.getTSLlocation());
+                context.setScheme(cached);
+                this.parsing.submit(() -> this.runParsing(context), deadline);
+            } else {
+                this.discovery.submit(() -> this.runDiscovery(context), deadline);
+            }
+        } catch(DeadlineExceededException e) {
+            context.getCompletion().completeExceptionally(e);
+        }
+        return context.getCompletion();
+    }
+    
+    /**
+     * Synchronous variant of {@link #submit(TrustSchemeClaim, Report, Deadline)}.
+     * Returns at the latest when <code>deadline</code> expires.
+     */
+    public VerificationContext verify(TrustSchemeClaim claim, Report report, Deadline deadline) throws IOException {
+        CompletableFuture<VerificationContext> result = this.submit(claim, report, deadline);
+        try {
+            return result.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch(TimeoutException e) {
+            result.cancel(false);
+            throw new DeadlineExceededException("Deadline exceeded while verifying claim " + claim + ".");
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for verification pipeline.");
+        } catch(ExecutionException e) {
+            throw new IOException("Verification pipeline failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+    
+    /**
+     * Resolve many claims at once; all claims are queued before waiting for the first.
+     * Returns at the latest when <code>deadline</code> expires.
+     *
+     * @return the context of each claim that was resolved (<code>getScheme() != null</code>), by claim.
+     */
+    public Map<String, VerificationContext> verifyAll(Collection<String> claims, Report report, Deadline deadline) throws InterruptedIOException {
+        Map<String, CompletableFuture<VerificationContext>> pending = new LinkedHashMap<>();
+        for(String claim : claims) {
+            pending.put(claim, this.submit(new TrustSchemeClaim(claim), report, deadline));
+        }
+        
+        Map<String, VerificationContext> resolved = new LinkedHashMap<>();
+        for(Map.Entry<String, CompletableFuture<VerificationContext>> entry : pending.entrySet()) {
+            try {
+                VerificationContext context = entry.getValue().get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+                if(context.getScheme() != null) {
+                    resolved.put(entry.getKey(), context);
+                } else {
+                    VerificationPipeline.logger.warn("Could not resolve claim " + entry.getKey());
+                }
+            } catch(TimeoutException e) {
+                entry.getValue().cancel(false);
+                VerificationPipeline.logger.warn("Deadline exceeded while verifying claim " + entry.getKey());
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for verification pipeline.");
+            } catch(ExecutionException e) {
+                VerificationPipeline.logger.warn("Could not resolve claim " + entry.getKey() + ": " + e.getCause());
+            }
+        }
+        return resolved;
+    }
+    
+    public void shutdown() {
+        this.discovery.shutdown();
+        this.loading.shutdown();
+        this.parsing.shutdown();
+    }
+    
+    private void runDiscovery(VerificationContext context) {
+        if(this.runTask(context, this::discover)) {
+            this.handOver(context, this.loading, () -> this.runLoading(context));
+        }
+    }
+    
+    private void runLoading(VerificationContext context) {
+        if(this.runTask(context, this::load)) {
+            this.handOver(context, this.parsing, () -> this.runParsing(context));
+        }
+    }
+    
+    private void runParsing(VerificationContext context) {
+        if(this.runTask(context, VerificationPipeline::parse)) {
+            context.getCompletion().complete(context);
+        }
+    }
+    
+    /**
+     * @return <code>true</code> if the request should continue to the next stage.
+     */
+    private boolean runTask(VerificationContext context, StageTask task) {
+        if(context.getCompletion().isDone()) {
+            // abandoned by the caller, e.g. after its deadline expired
+            return false;
+        }
+        try {
+            context.getDeadline().check("pipeline stage");
+            if(task.run(context)) {
+                return true;
+            }
+            context.getCompletion().complete(context);
+        } catch(Exception e) {
+            VerificationPipeline.logger.error("Pipeline stage failed for claim " + context.getClaim(), e);
+            context.getCompletion().completeExceptionally(e);
+        }
+        return false;
+    }
+    
+    private void handOver(VerificationContext context, PipelineStage next, Runnable task) {
+        try {
+            next.submit(task, context.getDeadline());
+        } catch(DeadlineExceededException | RejectedExecutionException e) {
+            VerificationPipeline.logger.error("Stage " + next.getName() + " rejected claim " + context.getClaim(), e);
+            context.getCompletion().completeExceptionally(e);
+        }
+    }
+    
+    private boolean discover(VerificationContext context) throws IOException {
+        Report report = context.getReport();
+        DNSHelper dns = new DNSHelper();
+        dns.setDeadline(context.getDeadline());
+        
+        String schemeHostname = TrustSchemeFactory.discoverTrustScheme(dns, context.getClaim(), report);
+        if(schemeHostname == null) {
+            report.addLine("Trust Scheme discovery failed for claim " + context.getClaim() + "!", ReportStatus.FAILED);
+            return false;
+        }
+        VerificationPipeline.logger.info("Found trust scheme: " + schemeHostname);
+        context.setSchemeHostname(schemeHostname);
+        
+        String tslLocation = TrustSchemeFactory.discoverTrustList(dns, schemeHostname, report);
+        if(tslLocation == null) {
+            report.addLine("Trust Status List discovery failed for scheme " + schemeHostname + "!", ReportStatus.FAILED);
+            return false;
+        }
+        VerificationPipeline.logger.info("Found trust list: " + tslLocation);
+        context.setTSLlocation(tslLocation);
+        
+        return true;
+    }
+    
+    private boolean load(VerificationContext context) {
+        Report report = context.getReport();
+        
+        String tslContent = TrustSchemeFactory.loadTrustList(context.getSchemeHostname(), context.getTSLlocation(), report, context.getDeadline());
+        if(tslContent == null) {
+            report.addLine("Trust Status List loading failed from URL " + context.getTSLlocation(), ReportStatus.FAILED);
+            return false;
+        }
+        report.addLine("Trust Status List discovered & loaded.", ReportStatus.OK);
+        
+        if(!TrustSchemeFactory.checkTrustList(context.getSchemeHostname(), tslContent, report, context.getDeadline())) {
+            return false;
+        }
+        context.setTSLcontent(tslContent);
+        
+        return true;
+    }
+    
+    /**
+     * Parsing stage, also used by {@link AsyncVerification}.
+     */
+    static boolean parse(VerificationContext context) throws Exception {
+        TrustScheme scheme = context.getScheme();
+        if(scheme == null) {
+            scheme = new TrustScheme(context.getTSLlocation(), context.getSchemeHostname(), context.getTSLcontent());
+            // the content only gets here after passing TrustSchemeFactory.checkTrustList
+            scheme.setSignatureVerified(TrustSchemeFactory.isTrustListVerificationEnabled());
+            TrustSchemeFactory.cacheTrustScheme(context.getClaim(), scheme);
+        }
+        context.setTrustList(scheme.getTrustList());
+        context.setScheme(scheme);
+        return true;
+    }
+    
+    private interface StageTask {
+        
+        boolean run(VerificationContext context) throws Exception;
+    }
+}
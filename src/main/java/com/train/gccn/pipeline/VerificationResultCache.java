@@ -0,0 +1,108 @@
+package com.train.gccn.pipeline;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.Gson;
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.model.trustlist.TrustList;
+import com.train.gccn.model.trustlist.TrustListDiff;
+import com.train.gccn.model.trustlist.TrustListRegistry;
+import org.apache.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification outcomes (positive and negative) by {@link Verification#getResultKey() result key}, claim and version
+ * of the trust list they were computed from.
+ * <p>
+ * A lookup only hits if the claim's scheme still has the same list (by content hash) in the {@link TrustListRegistry},
+ * so a hit is exactly what a full verification would return. Entries of a replaced list are dropped when the
+ * registry publishes its successor. Failed discoveries are not cached.
+ * <p>
+ * Responses are mutable, so they are kept as JSON snapshots (via Gson) and every hit returns a new copy.
+ * <p>
+ * Size and lifetime are configured via <code>verification_cache_size</code> and <code>verification_cache_ttl</code>
+ * (in seconds, defaults to <code>trustscheme_cache_ttl</code> so lists are still refreshed for hot pairs).
+ */
+class VerificationResultCache {
+    
+    private static Logger logger = Logger.getLogger(VerificationResultCache.class);
+    private static final Gson gson = new Gson();
+    private final Cache<List<String>, Snapshot> results; // key: result key, claim, list digest
+    private final Map<String, String> schemeByClaim = new ConcurrentHashMap<>();
+    
+    VerificationResultCache() {
+        long ttl = ATVConfiguration.get().getLong("verification_cache_ttl",
+                ATVConfiguration.get().getLong("trustscheme_cache_ttl", 300));
+        this.results = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .maximumSize(ATVConfiguration.get().getLong("verification_cache_size", 100000))
+                .build();
+        TrustListRegistry.addListener(this::onTrustListChanged);
+    }
+    
+    /**
+     * @return the outcome for the current list of the claim's scheme, or <code>null</code>.
+     */
+    <R> R get(Verification<R> verification) {
+        String key = verification.getResultKey();
+        String claim = verification.getClaim();
+        if(key == null) {
+            return null;
+        }
+        String schemeId = this.schemeByClaim.get(claim);
+        TrustList list = schemeId == null ? null : TrustListRegistry.get(schemeId);
+        if(list == null || list.getDigest() == null) {
+            return null;
+        }
+        Snapshot snapshot = this.results.getIfPresent(Arrays.asList(key, claim, list.getDigest()));
+        return snapshot == null ? null : snapshot.restore();
+    }
+    
+    /**
+     * @param schemeId the identifier the claim's list is published under (see {@link TrustListRegistry}).
+     * @param list     the list <code>result</code> was computed from.
+     */
+    <R> void put(Verification<R> verification, String schemeId, TrustList list, R result) {
+        String key = verification.getResultKey();
+        if(key == null || list.getDigest() == null) {
+            return;
+        }
+        this.schemeByClaim.put(verification.getClaim(), schemeId);
+        this.results.put(Arrays.asList(key, verification.getClaim(), list.getDigest()), new Snapshot(result));
+    }
+    
+    private void onTrustListChanged(String schemeId, TrustListDiff diff) {
+        if(diff.getPrevious() == null || diff.getPrevious().getDigest() == null) {
+            return;
+        }
+        String digest = diff.getPrevious().getDigest();
+        long before = this.results.size();
+        this.results.asMap().keySet().removeIf(key -> key.get(2).equals(digest));
+        VerificationResultCache.logger.info("Verification results: dropped " + (before - this.results.size())
+                + " entries of replaced list of " + schemeId);
+    }
+    
+    /**
+     * Immutable copy of a response.
+     */
+    private static class Snapshot {
+        
+        private final Class<?> type;
+        private final String json;
+        
+        Snapshot(Object response) {
+            this.type = response.getClass();
+            this.json = VerificationResultCache.gson.toJson(response);
+        }
+        
+        @SuppressWarnings("unchecked")
+        <R> R restore() {
+            return (R) VerificationResultCache.gson.fromJson(this.json, this.type);
+        }
+    }
+}
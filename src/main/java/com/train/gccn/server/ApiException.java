@@ -0,0 +1,18 @@
+package com.train.gccn.server;
+
+/**
+ * Request error reported to the caller with the given HTTP status.
+ */
+class ApiException extends Exception {
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return this.status;
+    }
+}
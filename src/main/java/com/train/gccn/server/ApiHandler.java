@@ -0,0 +1,158 @@
+package com.train.gccn.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Common request handling of all {@link ApiServer} endpoints: admission, method check, body size limit, JSON
+ * serialization of the (possibly asynchronous) result and error mapping.
+ * <p>
+ * The exchange is completed on whichever thread completes the endpoint's future, so asynchronous endpoints do not
+ * hold a worker thread while they wait for the network.
+ */
+class ApiHandler implements HttpHandler {
+
+    /**
+     * One API operation.
+     */
+    interface Endpoint {
+
+        /**
+         * @return the response object (serialized to JSON) or a {@link StreamingBody}.
+         */
+        CompletableFuture<?> handle(ApiRequest request) throws Exception;
+    }
+
+    /**
+     * Response written directly to the (chunked) response body.
+     */
+    interface StreamingBody {
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+    private static Logger logger = Logger.getLogger(ApiHandler.class);
+    private static final Gson gson = new Gson();
+
+    private final ApiServer server;
+    private final List<String> methods;
+    private final Endpoint endpoint;
+
+    ApiHandler(ApiServer server, Endpoint endpoint, String... methods) {
+        this.server = server;
+        this.endpoint = endpoint;
+        this.methods = Arrays.asList(methods);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) {
+        if(!this.server.admit()) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            ApiHandler.respond(exchange, null,
+                    new ApiException(HttpURLConnection.HTTP_UNAVAILABLE, "Server overloaded or shutting down"));
+            exchange.close();
+            return;
+        }
+
+        CompletableFuture<?> result;
+        try {
+            if(!this.methods.contains(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", String.join(", ", this.methods));
+                throw new ApiException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed: " + exchange.getRequestMethod());
+            }
+            byte[] body = ApiHandler.readBody(exchange, this.server.getMaxBodySize());
+            result = this.endpoint.handle(new ApiRequest(exchange, body));
+        } catch(Exception e) {
+            CompletableFuture<?> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            result = failed;
+        }
+
+        result.whenComplete((response, failure) -> {
+            try {
+                ApiHandler.respond(exchange, response, failure);
+            } finally {
+                exchange.close();
+                this.server.release();
+            }
+        });
+    }
+
+    private static byte[] readBody(HttpExchange exchange, int maxBodySize) throws IOException, ApiException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if(length != null && length.matches("\\d+") && Long.parseLong(length) > maxBodySize) {
+            throw new ApiException(HttpURLConnection.HTTP_ENTITY_TOO_LARGE, "Request body exceeds " + maxBodySize + " bytes");
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try(InputStream in = exchange.getRequestBody()) {
+            int n;
+            while((n = in.read(buffer)) > 0) {
+                if(body.size() + n > maxBodySize) {
+                    throw new ApiException(HttpURLConnection.HTTP_ENTITY_TOO_LARGE, "Request body exceeds " + maxBodySize + " bytes");
+                }
+                body.write(buffer, 0, n);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, Object response, Throwable failure) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", ApiHandler.CONTENT_TYPE);
+            if(failure != null) {
+                ApiHandler.sendError(exchange, failure);
+            } else if(response instanceof StreamingBody) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+                try(OutputStream out = exchange.getResponseBody()) {
+                    ((StreamingBody) response).writeTo(out);
+                }
+            } else {
+                ApiHandler.send(exchange, HttpURLConnection.HTTP_OK, ApiHandler.gson.toJson(response));
+            }
+        } catch(IOException | RuntimeException e) {
+            ApiHandler.logger.warn("Could not send response for " + exchange.getRequestURI() + ": " + e);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, Throwable failure) throws IOException {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        int status;
+        if(cause instanceof ApiException) {
+            status = ((ApiException) cause).getStatus();
+        } else if(cause instanceof IllegalArgumentException) {
+            status = HttpURLConnection.HTTP_BAD_REQUEST;
+        } else {
+            status = HttpURLConnection.HTTP_INTERNAL_ERROR;
+            ApiHandler.logger.error("Request " + exchange.getRequestURI() + " failed", cause);
+        }
+
+        JsonObject error = new JsonObject();
+        error.addProperty("error", cause.getMessage());
+        ApiHandler.send(exchange, status, error.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try(OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.train.gccn.server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Method, query parameters and (size limited) body of one API call.
+ */
+class ApiRequest {
+
+    private final String method;
+    private final Map<String, String> parameters;
+    private final byte[] body;
+
+    ApiRequest(HttpExchange exchange, byte[] body) {
+        this.method = exchange.getRequestMethod();
+        this.parameters = ApiRequest.parseQuery(exchange.getRequestURI().getRawQuery());
+        this.body = body;
+    }
+
+    String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * @return the (first) value of the query parameter, or <code>null</code> if missing or empty.
+     */
+    String getParameter(String name) {
+        String value = this.parameters.get(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    String requireParameter(String name) throws ApiException {
+        String value = this.getParameter(name);
+        if(value == null) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, "Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    Integer getIntParameter(String name) throws ApiException {
+        String value = this.getParameter(name);
+        if(value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch(NumberFormatException e) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, "Invalid number for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * @return the comma-separated values of the query parameter, empty if missing.
+     */
+    List<String> getListParameter(String name) {
+        String value = this.getParameter(name);
+        if(value == null) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        for(String item : Arrays.asList(value.split(","))) {
+            if(!item.trim().isEmpty()) {
+                values.add(item.trim());
+            }
+        }
+        return values;
+    }
+
+    String getBody() {
+        return new String(this.body, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if(query == null) {
+            return parameters;
+        }
+        for(String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.putIfAbsent(ApiRequest.decode(name), ApiRequest.decode(value));
+        }
+        return parameters;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch(UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.train.gccn.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpServer;
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.client.GCCNClient;
+import com.train.gccn.client.SSIClient;
+import com.train.gccn.client.TLClient;
+import com.train.gccn.client.VerificationRequest;
+import com.train.gccn.model.trustlist.TrustListQuery;
+import com.train.gccn.pipeline.CacheWarmer;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP/JSON API of the {@link GCCNClient}, {@link SSIClient} and {@link TLClient} operations, on the JDK's
+ * {@link HttpServer}.
+ * <p>
+ * Connections are kept alive (HTTP/1.1). Requests are dispatched to a fixed pool of <code>server_threads</code>
+ * workers with a queue of <code>server_queue_size</code>; single verifications run on the asynchronous pipeline and
+ * release their worker while waiting for DNS and HTTP. At most <code>server_max_in_flight</code> requests are
+ * processed at a time and request bodies are limited to <code>server_max_body_size</code> bytes. Requests beyond
+ * these limits are answered with 503 (or 413) right away instead of queueing up.
+ * <p>
+ * {@link #stop()} stops accepting connections and waits up to <code>server_shutdown_timeout</code> seconds for
+ * in-flight requests. <code>/ready</code> reports 503 until {@link CacheWarmer#isReady()}.
+ * <pre>
+ * GET      /health, /ready
+ * GET|POST /gccn/verify?issuer=&amp;claim=       POST /gccn/verify-batch   [{"issuer":..,"claim":..}, ...]
+ * GET|POST /ssi/verify?issuer=&amp;claim=        POST /ssi/verify-batch
+ * GET      /tl/registry?claim=
+ * GET      /tl/fetch?claim=[&amp;serviceType=&amp;country=&amp;qualifierURI=&amp;namePrefix=&amp;cursor=&amp;limit=&amp;fields=a,b]
+ * GET      /tl/suggest?claim=&amp;prefix=[&amp;limit=]     GET /tl/similar?claim=&amp;name=[&amp;limit=]
+ * GET      /tl/schemes?[name=][&amp;uri=][&amp;ski=]
+ * </pre>
+ * <code>/tl/fetch</code> without filter or paging parameters streams the full list once it is resolved (404 if no trust
+ * scheme is found for the claim, 502 if its list cannot be loaded or verified).
+ */
+public class ApiServer {
+
+    private static Logger logger = Logger.getLogger(ApiServer.class);
+    private static final Gson gson = new Gson();
+    private static final List<String> QUERY_PARAMETERS = Arrays.asList("serviceType", "country", "qualifierURI",
+            "namePrefix", "cursor", "limit", "fields");
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final Semaphore inFlight;
+    private final int maxBodySize;
+    private final int maxBatchSize;
+    private final ThreadLocal<Boolean> rejected = new ThreadLocal<>();
+    private volatile boolean stopping = false;
+
+    private final GCCNClient gccn = new GCCNClient();
+    private final SSIClient ssi = new SSIClient();
+    private final TLClient tl = new TLClient();
+
+    public ApiServer(int port) throws IOException {
+        ApiServer.configureConnections();
+
+        int threads = ATVConfiguration.get().getInt("server_threads", Runtime.getRuntime().availableProcessors() * 2);
+        int queueSize = ATVConfiguration.get().getInt("server_queue_size", 1024);
+        this.inFlight = new Semaphore(ATVConfiguration.get().getInt("server_max_in_flight", 10000));
+        this.maxBodySize = ATVConfiguration.get().getInt("server_max_body_size", 1024 * 1024);
+        this.maxBatchSize = ATVConfiguration.get().getInt("server_max_batch_size", 10000);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> new Thread(runnable, "api-worker-" + counter.incrementAndGet()));
+
+        this.server = HttpServer.create(new InetSocketAddress(port), ATVConfiguration.get().getInt("server_backlog", 1024));
+        this.server.setExecutor(this::dispatch);
+        this.createContexts();
+        ApiServer.logger.info("API server on port " + this.getPort() + ": " + threads + " worker(s), queue " + queueSize);
+    }
+
+    /**
+     * Keep-alive and request limits of the JDK server, unless set as system properties already. Nagle's algorithm is
+     * disabled, else small responses on kept-alive connections wait for the client's delayed ACK.
+     */
+    private static void configureConnections() {
+        ApiServer.setDefault("sun.net.httpserver.nodelay", "true");
+        ApiServer.setDefault("sun.net.httpserver.idleInterval", ATVConfiguration.get().getString("server_keep_alive_timeout", "30"));
+        ApiServer.setDefault("sun.net.httpserver.maxIdleConnections", ATVConfiguration.get().getString("server_max_idle_connections", "1000"));
+        ApiServer.setDefault("sun.net.httpserver.maxReqTime", ATVConfiguration.get().getString("server_max_request_time", "30"));
+        ApiServer.setDefault("sun.net.httpserver.maxReqHeaders", ATVConfiguration.get().getString("server_max_headers", "100"));
+    }
+
+    private static void setDefault(String property, String value) {
+        if(System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    private void createContexts() {
+        this.route("/health", request -> CompletableFuture.completedFuture(Collections.singletonMap("status", "UP")), "GET");
+        this.route("/ready", request -> {
+            if(!CacheWarmer.isReady()) {
+                throw new ApiException(HttpURLConnection.HTTP_UNAVAILABLE, "Warming up");
+            }
+            return CompletableFuture.completedFuture(Collections.singletonMap("status", "READY"));
+        }, "GET");
+
+        this.route("/gccn/verify", request ->
+                this.gccn.VerifyIdentityAsync(request.requireParameter("issuer"), request.requireParameter("claim")), "GET", "POST");
+        this.route("/gccn/verify-batch", request ->
+                CompletableFuture.completedFuture(this.gccn.VerifyIdentities(this.parseBatch(request))), "POST");
+        this.route("/ssi/verify", request ->
+                this.ssi.VerifyIdentityAsync(request.requireParameter("issuer"), request.requireParameter("claim")), "GET", "POST");
+        this.route("/ssi/verify-batch", request ->
+                CompletableFuture.completedFuture(this.ssi.VerifyIdentities(this.parseBatch(request))), "POST");
+
+        this.route("/tl/registry", request -> this.tl.VerifyIdentityAsync(request.requireParameter("claim")), "GET");
+        this.route("/tl/fetch", this::fetch, "GET");
+        this.route("/tl/suggest", request -> CompletableFuture.completedFuture(this.tl.SuggestIssuers(
+                request.requireParameter("claim"), request.requireParameter("prefix"), this.limit(request))), "GET");
+        this.route("/tl/similar", request -> CompletableFuture.completedFuture(this.tl.FindSimilarIssuers(
+                request.requireParameter("claim"), request.requireParameter("name"), this.limit(request))), "GET");
+        this.route("/tl/schemes", this::schemes, "GET");
+    }
+
+    private void route(String path, ApiHandler.Endpoint endpoint, String... methods) {
+        this.server.createContext(path, new ApiHandler(this, endpoint, methods));
+    }
+
+    private CompletableFuture<?> schemes(ApiRequest request) throws ApiException {
+        String name = request.getParameter("name");
+        String uri = request.getParameter("uri");
+        String ski = request.getParameter("ski");
+        if(name == null && uri == null && ski == null) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, "Missing parameter: name, uri or ski");
+        }
+        return CompletableFuture.completedFuture(this.tl.FindTrustSchemes(name, uri, ski));
+    }
+
+    private int limit(ApiRequest request) throws ApiException {
+        Integer limit = request.getIntParameter("limit");
+        return limit == null ? 10 : Math.max(1, Math.min(limit, 100));
+    }
+
+    private List<VerificationRequest> parseBatch(ApiRequest request) throws ApiException {
+        VerificationRequest[] requests;
+        try {
+            requests = ApiServer.gson.fromJson(request.getBody(), VerificationRequest[].class);
+        } catch(JsonParseException e) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, "Invalid batch: " + e.getMessage());
+        }
+        if(requests == null) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, "Missing batch");
+        }
+        if(requests.length > this.maxBatchSize) {
+            throw new ApiException(HttpURLConnection.HTTP_ENTITY_TOO_LARGE, "Batch exceeds " + this.maxBatchSize + " requests");
+        }
+        for(VerificationRequest verificationRequest : requests) {
+            if(verificationRequest == null || verificationRequest.getClaim() == null) {
+                throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, "Batch entry without claim");
+            }
+        }
+        return Arrays.asList(requests);
+    }
+
+    private CompletableFuture<?> fetch(ApiRequest request) throws ApiException {
+        String claim = request.requireParameter("claim");
+        boolean filtered = false;
+        for(String parameter : ApiServer.QUERY_PARAMETERS) {
+            filtered |= request.getParameter(parameter) != null;
+        }
+        if(!filtered) {
+            return this.tl.TrustListResolveAsync(claim).handle((trustList, e) -> {
+                if(e != null) {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    throw new CompletionException(new ApiException(HttpURLConnection.HTTP_BAD_GATEWAY,
+                            "Trust list not available: " + cause.getMessage()));
+                }
+                if(trustList == null) {
+                    throw new CompletionException(new ApiException(HttpURLConnection.HTTP_NOT_FOUND,
+                            "No trust scheme found for claim: " + claim));
+                }
+                ApiHandler.StreamingBody body = out -> this.tl.TrustListFetch(trustList, out);
+                return body;
+            });
+        }
+
+        TrustListQuery query = new TrustListQuery();
+        query.setServiceType(request.getParameter("serviceType"));
+        query.setCountry(request.getParameter("country"));
+        query.setQualifierURI(request.getParameter("qualifierURI"));
+        query.setNamePrefix(request.getParameter("namePrefix"));
+        query.setCursor(request.getParameter("cursor"));
+        Integer limit = request.getIntParameter("limit");
+        if(limit != null) {
+            query.setLimit(limit);
+        }
+
+        TLClient.TrustListPageResponse resp = this.tl.TrustListFetch(claim, query, request.getListParameter("fields"));
+        if(resp.Error != null) {
+            throw new ApiException(HttpURLConnection.HTTP_BAD_REQUEST, resp.Error);
+        }
+        return CompletableFuture.completedFuture(resp);
+    }
+
+    /**
+     * Executor of the server: a request the worker pool cannot take is handled on the dispatcher thread, where
+     * {@link #admit()} rejects it immediately.
+     */
+    private void dispatch(Runnable exchange) {
+        try {
+            this.workers.execute(exchange);
+        } catch(RejectedExecutionException e) {
+            this.rejected.set(Boolean.TRUE);
+            try {
+                exchange.run();
+            } finally {
+                this.rejected.remove();
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the request may be processed; it must then be {@link #release() released}.
+     */
+    boolean admit() {
+        return !this.stopping && this.rejected.get() == null && this.inFlight.tryAcquire();
+    }
+
+    void release() {
+        this.inFlight.release();
+    }
+
+    int getMaxBodySize() {
+        return this.maxBodySize;
+    }
+
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    public void start() {
+        this.server.start();
+        ApiServer.logger.info("API server started on port " + this.getPort());
+    }
+
+    /**
+     * Stops accepting requests, waits for in-flight requests (up to <code>server_shutdown_timeout</code> seconds)
+     * and stops the workers.
+     */
+    public void stop() {
+        int timeout = ATVConfiguration.get().getInt("server_shutdown_timeout", 10);
+        ApiServer.logger.info("Stopping API server ...");
+        this.stopping = true;
+        this.server.stop(timeout);
+
+        this.workers.shutdown();
+        try {
+            if(!this.workers.awaitTermination(timeout, TimeUnit.SECONDS)) {
+                this.workers.shutdownNow();
+            }
+        } catch(InterruptedException e) {
+            this.workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        ApiServer.logger.info("API server stopped.");
+    }
+}
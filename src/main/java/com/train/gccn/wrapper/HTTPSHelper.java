@@ -1,167 +1,302 @@
-package com.train.gccn.wrapper;
-
-
-import com.train.gccn.ATVConfiguration;
-import okhttp3.*;
-import org.apache.log4j.Logger;
-
-import javax.net.ssl.*;
-import java.io.IOException;
-import java.net.URL;
-import java.security.*;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.concurrent.TimeUnit;
-
-public class HTTPSHelper {
-    
-    private static long TIMEOUT = ATVConfiguration.get().getInt("http_timeout", 15); // in seconds
-    private static Logger logger = Logger.getLogger(HTTPSHelper.class);
-    private OkHttpClient client;
-    private OkHttpClient.Builder builder;
-    private DANETrustManager trustManager = null;
-    
-    public HTTPSHelper() {
-        // fix for JEP 229, see https://extgit.iaik.tugraz.at/LIGHTest/AutomaticTrustVerifier/issues/47#note_22080
-        Security.setProperty("keystore.type", "jks");
-    
-        this.builder = new OkHttpClient().newBuilder()
-                .callTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
-                .connectTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
-                .readTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
-                .writeTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
-                .followRedirects(false) // DANETrustManager does not support redirects right now
-                .followSslRedirects(true)
-                .connectionSpecs(Arrays.asList(ConnectionSpec.MODERN_TLS, ConnectionSpec.RESTRICTED_TLS));
-    
-        rebuildClient();
-
-//        try {
-//            if(ATVConfiguration.get().getBoolean("dane_verification_enabled")) {
-//                this.enableDANE();
-//            } else {
-//                this.disableDANE();
-//            }
-//        } catch(KeyManagementException | NoSuchAlgorithmException | KeyStoreException | IOException e) {
-//            e.printStackTrace();
-//        }
-    }
-    
-    /**
-     * @param timeout in seconds
-     */
-    public void setTimeout(long timeout, TimeUnit unit) {
-        this.builder = new OkHttpClient().newBuilder()
-                .callTimeout(timeout, unit)
-                .connectTimeout(timeout, unit);
-        
-        rebuildClient();
-    }
-    
-    public void disableOldTLS() {
-        // https://github.com/square/okhttp/wiki/HTTPS
-        this.builder = this.builder
-                .connectionSpecs(Collections.singletonList(ConnectionSpec.RESTRICTED_TLS));
-        
-        rebuildClient();
-    }
-    
-    public void enableDANE() throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException, IOException {
-        
-        X509TrustManager defaultTrustManager = this.getDefaultX509TrustManager();
-        this.trustManager = new DANETrustManager(defaultTrustManager);
-        
-        SSLSocketFactory sslSocketFactory = this.getDefaultSSLSocketFactory(this.trustManager);
-        
-        this.builder = this.builder.sslSocketFactory(sslSocketFactory, this.trustManager);
-        
-        rebuildClient();
-    }
-    
-    public void disableDANE() throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
-        this.trustManager = null;
-        
-        X509TrustManager defaultTrustManager = this.getDefaultX509TrustManager();
-        SSLSocketFactory sslSocketFactory = this.getDefaultSSLSocketFactory(defaultTrustManager);
-        
-        this.builder = this.builder.sslSocketFactory(sslSocketFactory, defaultTrustManager);
-        
-        rebuildClient();
-    }
-    
-    private X509TrustManager getDefaultX509TrustManager() throws KeyStoreException, NoSuchAlgorithmException {
-        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
-                TrustManagerFactory.getDefaultAlgorithm());
-        trustManagerFactory.init((KeyStore) null);
-        TrustManager[] trustManagers = trustManagerFactory.getTrustManagers();
-        if(trustManagers.length != 1 || !(trustManagers[0] instanceof X509TrustManager)) {
-            throw new IllegalStateException("Unexpected default trust managers:"
-                    + Arrays.toString(trustManagers));
-        }
-        
-        return (X509TrustManager) trustManagers[0];
-    }
-    
-    private SSLSocketFactory getDefaultSSLSocketFactory(X509TrustManager trustManager) throws NoSuchAlgorithmException, KeyManagementException {
-        SSLContext sslContext = SSLContext.getInstance("TLS");
-        sslContext.init(null, new TrustManager[]{trustManager}, null);
-        return sslContext.getSocketFactory();
-    }
-    
-    /**
-     * Pins certificates for {@code pattern}.
-     *
-     * @param pattern lower-case host name or wildcard pattern such as {@code *.example.com}.
-     * @param pin     SHA-256 or SHA-1 hash. Each pin is a hash of a certificate's Subject Public Key
-     *                Info, base64-encoded and prefixed with either {@code sha256/} or {@code sha1/}.
-     */
-    public void pinCert(String pattern, String pin) {
-        // example:
-        // "publicobject.com", "sha256/afwiKY3RxoMmLkuRW1l7QsPZTJPwDS2pdDROQjXw8ig="
-        CertificatePinner certPinner = new CertificatePinner.Builder()
-                .add(pattern, pin)
-                .build();
-        this.builder.certificatePinner(certPinner);
-        
-        rebuildClient();
-    }
-    
-    private void rebuildClient() {
-        this.client = this.builder.build();
-    }
-    
-    public String getXML(URL url) throws IOException {
-        Request request = new Request.Builder()
-                .get()
-                .url(url)
-                .addHeader("Accept", "application/xml")
-                .build();
-        
-        return this.doRequest(request);
-    }
-    
-    public String get(URL url) throws IOException {
-        Request request = new Request.Builder()
-                .get()
-                .url(url)
-                .build();
-        
-        return this.doRequest(request);
-    }
-    
-    private String doRequest(Request request) throws IOException {
-        
-        if(this.trustManager != null) {
-            this.trustManager.setHost(request.url().host());
-        }
-        
-        Response response = this.client.newCall(request).execute();
-        
-        if(!response.isSuccessful()) {
-            HTTPSHelper.logger.error("Cound not GET " + request.url().toString() + ", code: " + response.code());
-            return null;
-        }
-        
-        return response.body().string();
-    }
-}
+package com.train.gccn.wrapper;
+
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.train.gccn.ATVConfiguration;
+import com.train.gccn.model.Deadline;
+import okhttp3.*;
+import org.apache.log4j.Logger;
+
+import javax.net.ssl.*;
+import java.io.IOException;
+import java.net.URL;
+import java.security.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class HTTPSHelper {
+    
+    private static long TIMEOUT = ATVConfiguration.get().getInt("http_timeout", 15); // in seconds
+    private static Logger logger = Logger.getLogger(HTTPSHelper.class);
+    // successful GET responses by document and trust mode, shared by all helpers; lifetime configured via http_cache_ttl (in seconds)
+    private static final Cache<String, String> cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(ATVConfiguration.get().getLong("http_cache_ttl", 300), TimeUnit.SECONDS)
+            .maximumSize(ATVConfiguration.get().getLong("http_cache_size", 256))
+            .build();
+    private OkHttpClient client;
+    private OkHttpClient.Builder builder;
+    private DANETrustManager trustManager = null;
+    private String pins = null; // pattern=pin of the current certificate pinner
+    private Deadline deadline = null;
+    
+    public HTTPSHelper() {
+        // fix for JEP 229, see https://extgit.iaik.tugraz.at/LIGHTest/AutomaticTrustVerifier/issues/47#note_22080
+        Security.setProperty("keystore.type", "jks");
+    
+        this.builder = new OkHttpClient().newBuilder()
+                .callTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
+                .connectTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
+                .readTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
+                .writeTimeout(HTTPSHelper.TIMEOUT, TimeUnit.SECONDS)
+                .followRedirects(false) // DANETrustManager does not support redirects right now
+                .followSslRedirects(true)
+                .connectionSpecs(Arrays.asList(ConnectionSpec.MODERN_TLS, ConnectionSpec.RESTRICTED_TLS));
+    
+        rebuildClient();
+
+//        try {
+//            if(ATVConfiguration.get().getBoolean("dane_verification_enabled")) {
+//                this.enableDANE();
+//            } else {
+//                this.disableDANE();
+//            }
+//        } catch(KeyManagementException | NoSuchAlgorithmException | KeyStoreException | IOException e) {
+//            e.printStackTrace();
+//        }
+    }
+    
+    /**
+     * @param timeout in seconds
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        this.builder = new OkHttpClient().newBuilder()
+                .callTimeout(timeout, unit)
+                .connectTimeout(timeout, unit);
+        // the new builder has neither the DANE trust manager nor the pins
+        this.trustManager = null;
+        this.pins = null;
+        
+        rebuildClient();
+    }
+    
+    /**
+     * Limit all further requests of this helper (including DANE lookups) to the remaining budget of the given deadline.
+     */
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+        
+        if(this.trustManager != null) {
+            this.trustManager.setDeadline(deadline);
+        }
+    }
+    
+    public void disableOldTLS() {
+        // https://github.com/square/okhttp/wiki/HTTPS
+        this.builder = this.builder
+                .connectionSpecs(Collections.singletonList(ConnectionSpec.RESTRICTED_TLS));
+        
+        rebuildClient();
+    }
+    
+    public void enableDANE() throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException, IOException {
+        
+        X509TrustManager defaultTrustManager = this.getDefaultX509TrustManager();
+        this.trustManager = new DANETrustManager(defaultTrustManager);
+        this.trustManager.setDeadline(this.deadline);
+        
+        SSLSocketFactory sslSocketFactory = this.getDefaultSSLSocketFactory(this.trustManager);
+        
+        this.builder = this.builder.sslSocketFactory(sslSocketFactory, this.trustManager);
+        
+        rebuildClient();
+    }
+    
+    public void disableDANE() throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
+        this.trustManager = null;
+        
+        X509TrustManager defaultTrustManager = this.getDefaultX509TrustManager();
+        SSLSocketFactory sslSocketFactory = this.getDefaultSSLSocketFactory(defaultTrustManager);
+        
+        this.builder = this.builder.sslSocketFactory(sslSocketFactory, defaultTrustManager);
+        
+        rebuildClient();
+    }
+    
+    private X509TrustManager getDefaultX509TrustManager() throws KeyStoreException, NoSuchAlgorithmException {
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+                TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init((KeyStore) null);
+        TrustManager[] trustManagers = trustManagerFactory.getTrustManagers();
+        if(trustManagers.length != 1 || !(trustManagers[0] instanceof X509TrustManager)) {
+            throw new IllegalStateException("Unexpected default trust managers:"
+                    + Arrays.toString(trustManagers));
+        }
+        
+        return (X509TrustManager) trustManagers[0];
+    }
+    
+    private SSLSocketFactory getDefaultSSLSocketFactory(X509TrustManager trustManager) throws NoSuchAlgorithmException, KeyManagementException {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, new TrustManager[]{trustManager}, null);
+        return sslContext.getSocketFactory();
+    }
+    
+    /**
+     * Pins certificates for {@code pattern}.
+     *
+     * @param pattern lower-case host name or wildcard pattern such as {@code *.example.com}.
+     * @param pin     SHA-256 or SHA-1 hash. Each pin is a hash of a certificate's Subject Public Key
+     *                Info, base64-encoded and prefixed with either {@code sha256/} or {@code sha1/}.
+     */
+    public void pinCert(String pattern, String pin) {
+        // example:
+        // "publicobject.com", "sha256/afwiKY3RxoMmLkuRW1l7QsPZTJPwDS2pdDROQjXw8ig="
+        CertificatePinner certPinner = new CertificatePinner.Builder()
+                .add(pattern, pin)
+                .build();
+        this.builder.certificatePinner(certPinner);
+        this.pins = pattern + "=" + pin;
+        
+        rebuildClient();
+    }
+    
+    private void rebuildClient() {
+        this.client = this.builder.build();
+    }
+    
+    public String getXML(URL url) throws IOException {
+        Request request = new Request.Builder()
+                .get()
+                .url(url)
+                .addHeader("Accept", "application/xml")
+                .build();
+        
+        return this.doRequest(request);
+    }
+    
+    public String get(URL url) throws IOException {
+        Request request = new Request.Builder()
+                .get()
+                .url(url)
+                .build();
+        
+        return this.doRequest(request);
+    }
+    
+    /**
+     * Non-blocking variant of {@link #get(URL)}: the request is enqueued on OkHttp's dispatcher
+     * and the future completes on its callback.
+     */
+    public CompletableFuture<String> getAsync(URL url) {
+        Request request = new Request.Builder()
+                .get()
+                .url(url)
+                .build();
+        
+        CompletableFuture<String> result = new CompletableFuture<>();
+        String cacheKey = this.cacheKey(request);
+        try {
+            String known = this.lookupKnown(request, cacheKey);
+            if(known != null) {
+                result.complete(known);
+                return result;
+            }
+            
+            this.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    result.completeExceptionally(e);
+                }
+                
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try(Response r = response) {
+                        result.complete(HTTPSHelper.this.handleResponse(request, cacheKey, r));
+                    } catch(IOException | RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch(IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+    
+    private String doRequest(Request request) throws IOException {
+        
+        String cacheKey = this.cacheKey(request);
+        String known = this.lookupKnown(request, cacheKey);
+        if(known != null) {
+            return known;
+        }
+        
+        Response response = this.newCall(request).execute();
+        return this.handleResponse(request, cacheKey, response);
+    }
+    
+    /**
+     * @return the document key, also used in trust snapshots.
+     */
+    private static String documentKey(Request request) {
+        return request.url() + "|" + request.header("Accept");
+    }
+    
+    /**
+     * A document fetched without DANE or pinning must not be served to a helper requiring them, so the cache is
+     * keyed by the trust checks of the connection as well.
+     */
+    private String cacheKey(Request request) {
+        return HTTPSHelper.documentKey(request) + "|" + (this.trustManager != null ? "dane" : "pki")
+                + (this.pins != null ? "|pin:" + this.pins : "");
+    }
+    
+    /**
+     * @return the cached (or, in offline mode, recorded) document, or <code>null</code> if it must be requested.
+     */
+    private String lookupKnown(Request request, String cacheKey) throws IOException {
+        String cached = HTTPSHelper.cache.getIfPresent(cacheKey);
+        if(cached != null) {
+            HTTPSHelper.logger.info("HTTP cache hit: " + request.url());
+            return cached;
+        }
+        
+        TrustSnapshot offline = TrustSnapshot.getOffline();
+        if(offline != null) {
+            String recorded = offline.readDocument(HTTPSHelper.documentKey(request));
+            if(recorded == null) {
+                throw new IOException("Offline mode: " + request.url() + " not in snapshot.");
+            }
+            HTTPSHelper.cache.put(cacheKey, recorded);
+            return recorded;
+        }
+        return null;
+    }
+    
+    private Call newCall(Request request) throws IOException {
+        if(this.trustManager != null) {
+            this.trustManager.setHost(request.url().host());
+        }
+        
+        OkHttpClient callClient = this.client;
+        if(this.deadline != null) {
+            this.deadline.check("GET " + request.url());
+            long remaining = Math.max(1, this.deadline.remainingMillis());
+            callClient = this.client.newBuilder()
+                    .callTimeout(Math.min(remaining, TimeUnit.SECONDS.toMillis(HTTPSHelper.TIMEOUT)), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+        
+        return callClient.newCall(request);
+    }
+    
+    private String handleResponse(Request request, String cacheKey, Response response) throws IOException {
+        if(!response.isSuccessful()) {
+            HTTPSHelper.logger.error("Cound not GET " + request.url().toString() + ", code: " + response.code());
+            return null;
+        }
+        
+        String body = response.body().string();
+        HTTPSHelper.cache.put(cacheKey, body);
+        
+        TrustSnapshot recorder = TrustSnapshot.getRecorder();
+        if(recorder != null) {
+            recorder.writeDocument(HTTPSHelper.documentKey(request), body);
+        }
+        
+        return body;
+    }
+}
@@ -0,0 +1,131 @@
+package com.train.gccn.wrapper;
+
+import com.google.common.hash.Hashing;
+import com.train.gccn.ATVConfiguration;
+import org.apache.log4j.Logger;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Type;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Local copy of everything trust scheme discovery fetches from the network:
+ * DNS answers (wire format) and downloaded documents (e.g. Trust Status Lists).
+ * <p>
+ * A snapshot is written on a connected node while it is set as recorder (see {@link #startRecording(TrustSnapshot)},
+ * used by {@link com.train.gccn.SnapshotExport}). With <code>offline_mode = true</code>, {@link DNSHelper} and
+ * {@link HTTPSHelper} answer from the snapshot in <code>offline_snapshot_dir</code> only and never touch the network.
+ * <p>
+ * Layout:
+ * <pre>
+ * dns/&lt;host&gt;_&lt;TYPE&gt;.bin     DNS answer
+ * documents/&lt;sha256&gt;.doc     document, named by the hash of its request key
+ * </pre>
+ */
+public class TrustSnapshot {
+
+    private static final String DIR_DNS = "dns";
+    private static final String DIR_DOCUMENTS = "documents";
+    private static Logger logger = Logger.getLogger(TrustSnapshot.class);
+    private static TrustSnapshot offline = null;
+    private static boolean offlineInitialized = false;
+    private static volatile TrustSnapshot recorder = null;
+    private final File directory;
+
+    public TrustSnapshot(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the snapshot to serve from, or <code>null</code> if not in offline mode.
+     */
+    public static synchronized TrustSnapshot getOffline() {
+        if(!TrustSnapshot.offlineInitialized) {
+            if(ATVConfiguration.get().getBoolean("offline_mode", false)) {
+                File dir = new File(ATVConfiguration.get().getString("offline_snapshot_dir", "snapshot"));
+                if(!dir.isDirectory()) {
+                    TrustSnapshot.logger.error("Offline mode enabled, but snapshot directory does not exist: " + dir.getAbsolutePath());
+                }
+                TrustSnapshot.logger.info("Offline mode: serving from snapshot " + dir.getAbsolutePath());
+                TrustSnapshot.offline = new TrustSnapshot(dir);
+            }
+            TrustSnapshot.offlineInitialized = true;
+        }
+        return TrustSnapshot.offline;
+    }
+
+    /**
+     * @return the snapshot currently recording network answers, or <code>null</code>.
+     */
+    public static TrustSnapshot getRecorder() {
+        return TrustSnapshot.recorder;
+    }
+
+    public static void startRecording(TrustSnapshot snapshot) {
+        TrustSnapshot.logger.info("Recording snapshot to " + snapshot.getDirectory().getAbsolutePath());
+        TrustSnapshot.recorder = snapshot;
+    }
+
+    public static void stopRecording() {
+        TrustSnapshot.recorder = null;
+    }
+
+    public File getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return the recorded answer, or <code>null</code> if not part of the snapshot.
+     */
+    public Message readDNS(String host, int type) throws IOException {
+        byte[] wire = this.read(this.dnsPath(host, type));
+        return wire == null ? null : new Message(wire);
+    }
+
+    public void writeDNS(String host, int type, Message response) throws IOException {
+        this.write(this.dnsPath(host, type), response.toWire());
+    }
+
+    /**
+     * @return the recorded document, or <code>null</code> if not part of the snapshot.
+     */
+    public String readDocument(String key) throws IOException {
+        byte[] content = this.read(this.documentPath(key));
+        return content == null ? null : new String(content, StandardCharsets.UTF_8);
+    }
+
+    public void writeDocument(String key, String content) throws IOException {
+        this.write(this.documentPath(key), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path dnsPath(String host, int type) {
+        String name = host.toLowerCase().replaceAll("[^a-z0-9._-]", "_");
+        return this.directory.toPath().resolve(TrustSnapshot.DIR_DNS).resolve(name + "_" + Type.string(type) + ".bin");
+    }
+
+    private Path documentPath(String key) {
+        String name = Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+        return this.directory.toPath().resolve(TrustSnapshot.DIR_DOCUMENTS).resolve(name + ".doc");
+    }
+
+    private byte[] read(Path path) throws IOException {
+        if(!Files.isRegularFile(path)) {
+            TrustSnapshot.logger.warn("Not in snapshot: " + path);
+            return null;
+        }
+        return Files.readAllBytes(path);
+    }
+
+    private void write(Path path, byte[] content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        Files.write(tmp, content);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        TrustSnapshot.logger.info("Recorded " + path);
+    }
+}
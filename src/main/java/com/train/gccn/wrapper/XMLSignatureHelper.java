@@ -0,0 +1,233 @@
+package com.train.gccn.wrapper;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.train.gccn.ATVConfiguration;
+import org.apache.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.crypto.AlgorithmMethod;
+import javax.xml.crypto.KeySelector;
+import javax.xml.crypto.KeySelectorException;
+import javax.xml.crypto.KeySelectorResult;
+import javax.xml.crypto.MarshalException;
+import javax.xml.crypto.XMLCryptoContext;
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.Reference;
+import javax.xml.crypto.dsig.Transform;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureException;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMValidateContext;
+import javax.xml.crypto.dsig.keyinfo.KeyInfo;
+import javax.xml.crypto.dsig.keyinfo.X509Data;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * XMLDSig verification of signed XML documents (e.g. Trust Status Lists) against signers published via SMIMEA.
+ * <p>
+ * Only an enveloped signature over the whole document is accepted: a single reference to <code>""</code> or the
+ * document element's <code>Id</code>, with no transforms but enveloped-signature and canonicalization. A valid
+ * signature over a fragment (signature wrapping) is rejected.
+ * <p>
+ * Results are memoized by the SHA-256 of the document (as verified and later parsed, i.e. its characters) and of the
+ * SMIMEA record,
+ * so each version of a list is only verified once per signer.
+ * The number of remembered results is configured via <code>signature_cache_size</code>.
+ */
+public class XMLSignatureHelper {
+
+    private static Logger logger = Logger.getLogger(XMLSignatureHelper.class);
+    private static final List<String> ALLOWED_TRANSFORMS = Arrays.asList(Transform.ENVELOPED,
+            CanonicalizationMethod.INCLUSIVE, CanonicalizationMethod.INCLUSIVE_WITH_COMMENTS,
+            CanonicalizationMethod.EXCLUSIVE, CanonicalizationMethod.EXCLUSIVE_WITH_COMMENTS,
+            "http://www.w3.org/2006/12/xml-c14n11", "http://www.w3.org/2006/12/xml-c14n11#WithComments");
+    private static final Cache<String, Boolean> results = CacheBuilder.newBuilder()
+            .maximumSize(ATVConfiguration.get().getLong("signature_cache_size", 1024))
+            .build();
+
+    private XMLSignatureHelper() {
+        // static class
+    }
+
+    /**
+     * @param xml     the signed document.
+     * @param signers SMIMEA records of the accepted signers.
+     * @return <code>true</code> if the document carries a valid signature by one of the signers.
+     */
+    public static boolean verify(String xml, List<SMIMEAcert> signers) {
+        if(signers.isEmpty()) {
+            XMLSignatureHelper.logger.error("No SMIMEA record found, cannot verify signature.");
+            return false;
+        }
+
+        // exactly the characters that are verified (and parsed afterwards); a charset round trip is not injective
+        String documentDigest = Hashing.sha256().hashUnencodedChars(xml).toString();
+
+        for(SMIMEAcert signer : signers) {
+            String key = documentDigest + ":" + Hashing.sha256().hashBytes(signer.getCertificateAssociationData());
+            Boolean valid = XMLSignatureHelper.results.getIfPresent(key);
+
+            if(valid == null) {
+                valid = XMLSignatureHelper.verify(xml, signer);
+                XMLSignatureHelper.results.put(key, valid);
+            } else {
+                XMLSignatureHelper.logger.info("Using memoized signature result for document " + documentDigest + ": " + valid);
+            }
+
+            if(valid) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean verify(String xml, SMIMEAcert signer) {
+        signer.init();
+
+        try {
+            Document doc = XMLSignatureHelper.parse(xml);
+
+            NodeList signatures = doc.getElementsByTagNameNS(XMLSignature.XMLNS, "Signature");
+            if(signatures.getLength() != 1) {
+                XMLSignatureHelper.logger.error("Expected exactly 1 signature, found " + signatures.getLength());
+                return false;
+            }
+
+            Element root = doc.getDocumentElement();
+            if(signatures.item(0).getParentNode() != root) {
+                XMLSignatureHelper.logger.error("Signature is not enveloped by the document element.");
+                return false;
+            }
+            XMLSignatureHelper.registerRootId(root);
+
+            DOMValidateContext context = new DOMValidateContext(new SMIMEAKeySelector(signer), signatures.item(0));
+            context.setProperty("org.jcp.xml.dsig.secureValidation", Boolean.TRUE);
+
+            XMLSignatureFactory factory = XMLSignatureFactory.getInstance("DOM");
+            XMLSignature signature = factory.unmarshalXMLSignature(context);
+            if(!XMLSignatureHelper.coversDocument(signature, root)) {
+                return false;
+            }
+
+            boolean valid = signature.validate(context);
+            XMLSignatureHelper.logger.info("Signature validation result: " + valid);
+            return valid;
+
+        } catch(ParserConfigurationException | SAXException | IOException | MarshalException | XMLSignatureException e) {
+            XMLSignatureHelper.logger.error("Signature validation failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Document parse(String xml) throws ParserConfigurationException, IOException, SAXException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        XMLUtil.secureFactory(factory);
+        factory.setNamespaceAware(true); // required by XMLDSig
+
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+
+    /**
+     * A same-document reference (<code>URI="#..."</code>) may only point to the document element, whose
+     * <code>Id</code> attribute is no ID type without a schema. Other <code>Id</code>s are not registered, so
+     * references to fragments cannot be resolved.
+     */
+    private static void registerRootId(Element root) {
+        if(root.hasAttribute("Id")) {
+            root.setIdAttribute("Id", true);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if <code>signature</code> has exactly one reference, to the whole document (by
+     * <code>""</code> or the document element's <code>Id</code>), with the enveloped-signature transform and no
+     * transforms other than canonicalization.
+     */
+    private static boolean coversDocument(XMLSignature signature, Element root) {
+        List<?> references = signature.getSignedInfo().getReferences();
+        if(references.size() != 1) {
+            XMLSignatureHelper.logger.error("Expected exactly 1 reference, found " + references.size());
+            return false;
+        }
+
+        Reference reference = (Reference) references.get(0);
+        String uri = reference.getURI();
+        String rootId = root.getAttribute("Id");
+        if(!"".equals(uri) && !(!rootId.isEmpty() && ("#" + rootId).equals(uri))) {
+            XMLSignatureHelper.logger.error("Reference does not cover the whole document: " + uri);
+            return false;
+        }
+
+        boolean enveloped = false;
+        for(Object transform : reference.getTransforms()) {
+            String algorithm = ((Transform) transform).getAlgorithm();
+            if(!XMLSignatureHelper.ALLOWED_TRANSFORMS.contains(algorithm)) {
+                XMLSignatureHelper.logger.error("Transform not allowed: " + algorithm);
+                return false;
+            }
+            enveloped |= Transform.ENVELOPED.equals(algorithm);
+        }
+        if(!enveloped) {
+            XMLSignatureHelper.logger.error("Reference lacks the enveloped-signature transform.");
+        }
+        return enveloped;
+    }
+
+    /**
+     * Accepts the key of an embedded certificate only if it matches the SMIMEA record.
+     */
+    private static class SMIMEAKeySelector extends KeySelector {
+
+        private final SMIMEAcert signer;
+
+        SMIMEAKeySelector(SMIMEAcert signer) {
+            this.signer = signer;
+        }
+
+        @Override
+        public KeySelectorResult select(KeyInfo keyInfo, Purpose purpose, AlgorithmMethod method, XMLCryptoContext context) throws KeySelectorException {
+            if(keyInfo == null) {
+                throw new KeySelectorException("Signature contains no KeyInfo.");
+            }
+
+            for(Object info : keyInfo.getContent()) {
+                if(!(info instanceof X509Data)) {
+                    continue;
+                }
+                for(Object data : ((X509Data) info).getContent()) {
+                    if(data instanceof X509Certificate && this.matches((X509Certificate) data)) {
+                        X509Certificate cert = (X509Certificate) data;
+                        XMLSignatureHelper.logger.info("Signer matches SMIMEA record: " + cert.getSubjectX500Principal());
+                        return cert::getPublicKey;
+                    }
+                }
+            }
+
+            throw new KeySelectorException("No signer certificate matching the SMIMEA record found.");
+        }
+
+        private boolean matches(X509Certificate cert) {
+            try {
+                return this.signer.match(new iaik.x509.X509Certificate(cert.getEncoded()));
+            } catch(CertificateException | NoSuchAlgorithmException e) {
+                XMLSignatureHelper.logger.warn("Could not match certificate: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+}
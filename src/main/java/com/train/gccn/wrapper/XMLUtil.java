@@ -1,243 +1,383 @@
-package com.train.gccn.wrapper;
-
-import org.apache.commons.io.IOUtils;
-import org.apache.log4j.Logger;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringReader;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-
-public class XMLUtil {
-    
-    private static Logger logger = Logger.getLogger(XMLUtil.class);
-    private final Element root;
-    private final String rootTagName;
-    
-    public XMLUtil(InputStream xmlFilestream) throws IOException, ParserConfigurationException, SAXException {
-        this(IOUtils.toString(xmlFilestream));
-    }
-    
-    
-    public XMLUtil(File xmlFile) throws IOException, ParserConfigurationException, SAXException {
-        this(new String(Files.readAllBytes(Paths.get(xmlFile.getPath()))));
-    }
-    
-    public XMLUtil(String xmlData) throws ParserConfigurationException, IOException, SAXException {
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        XMLUtil.secureFactory(dbFactory);
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        
-        InputSource is = new InputSource(new StringReader(xmlData));
-        Document doc = dBuilder.parse(is);
-        
-        doc.getDocumentElement().normalize();
-        this.root = doc.getDocumentElement();
-        
-        this.rootTagName = this.root.getTagName();
-    }
-    
-    public static void secureFactory(DocumentBuilderFactory factory) throws ParserConfigurationException {
-        // via https://gist.github.com/AlainODea/1779a7c6a26a5c135280bc9b3b71868f
-        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        factory.setXIncludeAware(false);
-        factory.setExpandEntityReferences(false);
-    }
-    
-    public String getAttribute(String attributeName) {
-        
-        return this.root.getAttributes().getNamedItem(attributeName).getNodeValue();
-    }
-    
-    public String getElementAttribute(List<String> path, String attributeName) {
-        if(!isSafeString(attributeName)) {
-            XMLUtil.logger.warn("Invalid attributeName: " + attributeName);
-            return null;
-        }
-    
-        String xpath = convertPathToXPath(path, false, true);
-    
-        xpath = "string(" + xpath + "/@" + attributeName + ")";
-    
-        return getElementByXPath(xpath);
-    }
-    
-    public boolean isElement(String path) {
-        XMLUtil.logger.info("path: " + path);
-        String xpath = convertPathToXPath(path, false, true);
-        return getElementByXPath(xpath) != null;
-    }
-    
-    public String getElement(String path) {
-        String xpath = convertPathToXPath(path);
-        return getElementByXPath(xpath);
-    }
-    
-    public String getElement(String path, Node node) {
-        String xpath = convertPathToXPath(path, true, false);
-        return getElementByXPath(xpath, node);
-    }
-    
-    public String getElement(List<String> path) {
-        String xpath = convertPathToXPath(path);
-        return getElementByXPath(xpath);
-    }
-    
-    public NodeList getNodesAsMap(String path) {
-        String xpath = convertPathToXPath(path, false, true);
-        return getNodeListByXPath(xpath);
-    }
-    
-    public Map<String, String> getNodesAsMap(String path1, String path2key, String path2value, Node agreementNode) {
-        String xpath1 = convertPathToXPath(path1, false, false);
-        String xpath2key = convertPathToXPath(path2key, true, false);
-        String xpath2value = convertPathToXPath(path2value, true, false);
-        
-        NodeList nodeList = getNodeListByXPath(xpath1, agreementNode);
-        if(nodeList == null) {
-            return null;
-        }
-    
-        Map<String, String> results = new HashMap<>();
-        
-        for(int i = 0; i < nodeList.getLength(); i++) {
-            Node paramNode = nodeList.item(i);
-            String key = getElementByXPath(xpath2key, paramNode);
-            String value = getElementByXPath(xpath2value, paramNode);
-            results.put(key, value);
-        }
-        
-        return results;
-    }
-    
-    private NodeList getNodeListByXPath(String xpath) {
-        return getNodeListByXPath(xpath, this.root);
-    }
-    
-    private NodeList getNodeListByXPath(String xpath, Object rootElement) {
-        if(xpath == null) {
-            return null;
-        }
-        
-        XMLUtil.logger.info("Executing xpath " + xpath);
-        
-        XPathFactory xpf = XPathFactory.newInstance();
-        XPath xp = xpf.newXPath();
-        try {
-            return (NodeList) xp.evaluate(xpath, rootElement, XPathConstants.NODESET);
-            
-        } catch(XPathExpressionException e) {
-            XMLUtil.logger.error("XPath Error", e);
-            return null;
-        }
-    }
-    
-    public String getElementByXPath(String xpath) {
-        return getElementByXPath(xpath, this.root);
-    }
-
-    public NodeList getElementsByXpath(String xpath)
-    {
-        if(xpath == null) {
-            return null;
-        }
-
-        XMLUtil.logger.info("Executing xpath " + xpath);
-
-        XPathFactory xpf = XPathFactory.newInstance();
-        XPath xp = xpf.newXPath();
-        try {
-            return (NodeList) xp.evaluate(xpath, this.root, XPathConstants.NODESET);
-
-        } catch(XPathExpressionException e) {
-            XMLUtil.logger.error("XPath Error", e);
-            return null;
-        }
-    }
-    
-    public String getElementByXPath(String xpath, Object rootElement) {
-        
-        if(xpath == null) {
-            return null;
-        }
-        
-        XMLUtil.logger.info("Executing xpath " + xpath);
-        
-        XPathFactory xpf = XPathFactory.newInstance();
-        XPath xp = xpf.newXPath();
-        try {
-            String res = xp.evaluate(xpath, rootElement);
-            return res != null && res.trim().length() > 0 ? res : null;
-            
-        } catch(XPathExpressionException e) {
-            XMLUtil.logger.error("XPath Error", e);
-            return null;
-        }
-    }
-    
-    private String convertPathToXPath(List<String> path) {
-        return convertPathToXPath(path, true, true);
-    }
-    
-    private String convertPathToXPath(List<String> path, boolean pathToText, boolean prefixRootname) {
-        String xpath = "";
-        if(prefixRootname) {
-            xpath += "//" + this.rootTagName + "/";
-        }
-        
-        for(String s : path) {
-            s = s.trim();
-            if(isSafeString(s)) {
-                xpath += s;
-                xpath += "/";
-            } else {
-                XMLUtil.logger.warn("Invalid element in path: " + s);
-                return null;
-            }
-        }
-        if(pathToText == true) {
-            xpath += "text()";
-        } else {
-            xpath = xpath.substring(0, xpath.length() - 1);
-        }
-        
-        return xpath;
-    }
-    
-    private String convertPathToXPath(String path) {
-        return convertPathToXPath(path, true, true);
-    }
-    
-    private String convertPathToXPath(String path, boolean pathToText, boolean prefixRootname) {
-        path = path.trim();
-        return convertPathToXPath(Arrays.asList(path.split("\\.")), pathToText, prefixRootname);
-    }
-    
-    private boolean isSafeString(String s) {
-        return s.matches("[a-zA-Z0-9_\\-]+");
-    }
-    
-}
+package com.train.gccn.wrapper;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+
+public class XMLUtil {
+    
+    private static Logger logger = Logger.getLogger(XMLUtil.class);
+    private static final Pattern SAFE_STRING = Pattern.compile("[a-zA-Z0-9_\\-]+");
+    private static final int EXPRESSION_CACHE_SIZE = 256;
+    private static final long MAP_MIN_SIZE = 64 * 1024; // smaller files are streamed from the channel
+    private static final ThreadLocal<DocumentBuilder> builders = new ThreadLocal<>();
+    // XPath and XPathExpression are not thread-safe, so each thread compiles & keeps its own
+    private static final ThreadLocal<XPath> xpaths = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+    private static final ThreadLocal<Map<String, XPathExpression>> expressions = ThreadLocal.withInitial(ExpressionCache::new);
+    // converted paths by root tag name, flags and path
+    private static final Cache<List<Object>, String> xpathsByPath = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .build();
+    private final Element root;
+    private final String rootTagName;
+    
+    public XMLUtil(InputStream xmlFilestream) throws IOException, ParserConfigurationException, SAXException {
+        this(new InputSource(xmlFilestream));
+    }
+    
+    public XMLUtil(byte[] xmlData) throws IOException, ParserConfigurationException, SAXException {
+        this(new InputSource(new ByteArrayInputStream(xmlData)));
+    }
+    
+    public XMLUtil(File xmlFile) throws IOException, ParserConfigurationException, SAXException {
+        this(xmlFile.toPath());
+    }
+    
+    /**
+     * Parses the file directly from a memory-mapped buffer (or, for small files, a buffered channel stream),
+     * without copying it into a byte array or string first.
+     */
+    public XMLUtil(Path xmlFile) throws IOException, ParserConfigurationException, SAXException {
+        try(FileChannel channel = FileChannel.open(xmlFile, StandardOpenOption.READ)) {
+            InputStream in;
+            if(channel.size() >= XMLUtil.MAP_MIN_SIZE) {
+                in = new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } else {
+                in = new BufferedInputStream(Channels.newInputStream(channel));
+            }
+            InputSource is = new InputSource(in);
+            is.setSystemId(xmlFile.toUri().toString());
+            Document doc = XMLUtil.parse(is);
+            this.root = doc.getDocumentElement();
+            this.rootTagName = this.root.getTagName();
+        }
+    }
+    
+    public XMLUtil(String xmlData) throws ParserConfigurationException, IOException, SAXException {
+        this(new InputSource(new StringReader(xmlData)));
+    }
+    
+    private XMLUtil(InputSource is) throws ParserConfigurationException, IOException, SAXException {
+        Document doc = XMLUtil.parse(is);
+        this.root = doc.getDocumentElement();
+        this.rootTagName = this.root.getTagName();
+    }
+    
+    private static Document parse(InputSource is) throws ParserConfigurationException, IOException, SAXException {
+        DocumentBuilder dBuilder = XMLUtil.getDocumentBuilder();
+        try {
+            Document doc = dBuilder.parse(is);
+            doc.getDocumentElement().normalize();
+            return doc;
+        } finally {
+            dBuilder.reset();
+        }
+    }
+    
+    /**
+     * @return the hardened builder of the current thread (builders are not thread-safe, but reusable after reset()).
+     */
+    private static DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder dBuilder = XMLUtil.builders.get();
+        if(dBuilder == null) {
+            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+            XMLUtil.secureFactory(dbFactory);
+            dBuilder = dbFactory.newDocumentBuilder();
+            XMLUtil.builders.set(dBuilder);
+        }
+        return dBuilder;
+    }
+    
+    public static void secureFactory(DocumentBuilderFactory factory) throws ParserConfigurationException {
+        // via https://gist.github.com/AlainODea/1779a7c6a26a5c135280bc9b3b71868f
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        factory.setXIncludeAware(false);
+        factory.setExpandEntityReferences(false);
+    }
+    
+    public String getAttribute(String attributeName) {
+        
+        return this.root.getAttributes().getNamedItem(attributeName).getNodeValue();
+    }
+    
+    public String getElementAttribute(List<String> path, String attributeName) {
+        if(!isSafeString(attributeName)) {
+            XMLUtil.logger.warn("Invalid attributeName: " + attributeName);
+            return null;
+        }
+    
+        String xpath = convertPathToXPath(path, false, true);
+    
+        xpath = "string(" + xpath + "/@" + attributeName + ")";
+    
+        return getElementByXPath(xpath);
+    }
+    
+    public boolean isElement(String path) {
+        XMLUtil.logger.info("path: " + path);
+        String xpath = convertPathToXPath(path, false, true);
+        return getElementByXPath(xpath) != null;
+    }
+    
+    public String getElement(String path) {
+        String xpath = convertPathToXPath(path);
+        return getElementByXPath(xpath);
+    }
+    
+    public String getElement(String path, Node node) {
+        String xpath = convertPathToXPath(path, true, false);
+        return getElementByXPath(xpath, node);
+    }
+    
+    public String getElement(List<String> path) {
+        String xpath = convertPathToXPath(path);
+        return getElementByXPath(xpath);
+    }
+    
+    public NodeList getNodesAsMap(String path) {
+        String xpath = convertPathToXPath(path, false, true);
+        return getNodeListByXPath(xpath);
+    }
+    
+    public Map<String, String> getNodesAsMap(String path1, String path2key, String path2value, Node agreementNode) {
+        String xpath1 = convertPathToXPath(path1, false, false);
+        String xpath2key = convertPathToXPath(path2key, true, false);
+        String xpath2value = convertPathToXPath(path2value, true, false);
+        
+        NodeList nodeList = getNodeListByXPath(xpath1, agreementNode);
+        if(nodeList == null) {
+            return null;
+        }
+    
+        Map<String, String> results = new HashMap<>();
+        
+        for(int i = 0; i < nodeList.getLength(); i++) {
+            Node paramNode = nodeList.item(i);
+            String key = getElementByXPath(xpath2key, paramNode);
+            String value = getElementByXPath(xpath2value, paramNode);
+            results.put(key, value);
+        }
+        
+        return results;
+    }
+    
+    private NodeList getNodeListByXPath(String xpath) {
+        return getNodeListByXPath(xpath, this.root);
+    }
+    
+    private NodeList getNodeListByXPath(String xpath, Object rootElement) {
+        if(xpath == null) {
+            return null;
+        }
+        
+        XMLUtil.logger.info("Executing xpath " + xpath);
+        
+        try {
+            return (NodeList) XMLUtil.compile(xpath).evaluate(rootElement, XPathConstants.NODESET);
+            
+        } catch(XPathExpressionException e) {
+            XMLUtil.logger.error("XPath Error", e);
+            return null;
+        }
+    }
+    
+    public String getElementByXPath(String xpath) {
+        return getElementByXPath(xpath, this.root);
+    }
+
+    public NodeList getElementsByXpath(String xpath)
+    {
+        if(xpath == null) {
+            return null;
+        }
+
+        XMLUtil.logger.info("Executing xpath " + xpath);
+
+        try {
+            return (NodeList) XMLUtil.compile(xpath).evaluate(this.root, XPathConstants.NODESET);
+
+        } catch(XPathExpressionException e) {
+            XMLUtil.logger.error("XPath Error", e);
+            return null;
+        }
+    }
+    
+    public String getElementByXPath(String xpath, Object rootElement) {
+        
+        if(xpath == null) {
+            return null;
+        }
+        
+        XMLUtil.logger.info("Executing xpath " + xpath);
+        
+        try {
+            String res = XMLUtil.compile(xpath).evaluate(rootElement);
+            return res != null && res.trim().length() > 0 ? res : null;
+            
+        } catch(XPathExpressionException e) {
+            XMLUtil.logger.error("XPath Error", e);
+            return null;
+        }
+    }
+    
+    private String convertPathToXPath(List<String> path) {
+        return convertPathToXPath(path, true, true);
+    }
+    
+    /**
+     * @return the compiled expression, cached per thread.
+     */
+    private static XPathExpression compile(String xpath) throws XPathExpressionException {
+        Map<String, XPathExpression> cache = XMLUtil.expressions.get();
+        XPathExpression expression = cache.get(xpath);
+        if(expression == null) {
+            expression = XMLUtil.xpaths.get().compile(xpath);
+            cache.put(xpath, expression);
+        }
+        return expression;
+    }
+    
+    private String convertPathToXPath(List<String> path, boolean pathToText, boolean prefixRootname) {
+        List<Object> key = Arrays.asList(this.rootTagName, pathToText, prefixRootname, new ArrayList<>(path));
+        String xpath = XMLUtil.xpathsByPath.getIfPresent(key);
+        if(xpath == null) {
+            xpath = this.buildXPath(path, pathToText, prefixRootname);
+            if(xpath != null) {
+                XMLUtil.xpathsByPath.put(key, xpath);
+            }
+        }
+        return xpath;
+    }
+    
+    private String buildXPath(List<String> path, boolean pathToText, boolean prefixRootname) {
+        String xpath = "";
+        if(prefixRootname) {
+            xpath += "//" + this.rootTagName + "/";
+        }
+        
+        for(String s : path) {
+            s = s.trim();
+            if(isSafeString(s)) {
+                xpath += s;
+                xpath += "/";
+            } else {
+                XMLUtil.logger.warn("Invalid element in path: " + s);
+                return null;
+            }
+        }
+        if(pathToText == true) {
+            xpath += "text()";
+        } else {
+            xpath = xpath.substring(0, xpath.length() - 1);
+        }
+        
+        return xpath;
+    }
+    
+    private String convertPathToXPath(String path) {
+        return convertPathToXPath(path, true, true);
+    }
+    
+    private String convertPathToXPath(String path, boolean pathToText, boolean prefixRootname) {
+        path = path.trim();
+        return convertPathToXPath(Arrays.asList(path.split("\\.")), pathToText, prefixRootname);
+    }
+    
+    private boolean isSafeString(String s) {
+        return XMLUtil.SAFE_STRING.matcher(s).matches();
+    }
+    
+    /**
+     * LRU map of compiled expressions, bounded to {@link #EXPRESSION_CACHE_SIZE}.
+     */
+    private static class ExpressionCache extends LinkedHashMap<String, XPathExpression> {
+        
+        ExpressionCache() {
+            super(16, 0.75f, true);
+        }
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+            return this.size() > XMLUtil.EXPRESSION_CACHE_SIZE;
+        }
+    }
+    
+    /**
+     * Reads a (mapped) buffer from its position to its limit.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        
+        private final ByteBuffer buffer;
+        
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if(len == 0) {
+                return 0;
+            }
+            if(!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, this.buffer.remaining());
+            this.buffer.get(b, off, n);
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+            this.buffer.position(this.buffer.position() + skipped);
+            return skipped;
+        }
+        
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.train.gccn.model.trustlist;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IssuerDirectoryTest {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private IssuerDirectory directory;
+    private String schemeA;
+    private String schemeB;
+
+    /**
+     * Publishes two schemes with fresh identifiers, as the registry and the directory are shared by all tests.
+     */
+    @Before
+    public void publish() throws XMLStreamException {
+        int n = IssuerDirectoryTest.counter.incrementAndGet();
+        this.schemeA = "a" + n + ".directory-test.example";
+        this.schemeB = "b" + n + ".directory-test.example";
+        this.directory = IssuerDirectory.get();
+
+        TrustListRegistry.publish(this.schemeA, TrustListFixtures.list(1,
+                TrustListFixtures.provider("Deutsche Telekom AG", "https://telekom.example/" + n, "DE",
+                        TrustListFixtures.QUALIFIED, TrustListFixtures.CERTIFICATE),
+                TrustListFixtures.provider("Acme " + n, "urn:acme:" + n, "FR", TrustListFixtures.QUALIFIED, null)));
+        TrustListRegistry.publish(this.schemeB, TrustListFixtures.list(1,
+                TrustListFixtures.provider("Other " + n, null, "IT", TrustListFixtures.TIMESTAMP, null),
+                TrustListFixtures.provider("deutsche telekom ag", null, "DE", TrustListFixtures.TIMESTAMP, null)));
+    }
+
+    @Test
+    public void findsByNameInAllSchemes() {
+        assertTrue(this.directory.findSchemes("  DEUTSCHE Telekom AG", null, null)
+                .containsAll(Arrays.asList(this.schemeA, this.schemeB)));
+
+        List<IssuerListing> listings = this.schemes(this.directory.findByName("deutsche telekom ag (de)"));
+        assertEquals(2, listings.size());
+        assertEquals(this.schemeA, listings.get(0).getSchemeId());
+        assertEquals(0, listings.get(0).getProvider().getOrdinal());
+        assertEquals(this.schemeB, listings.get(1).getSchemeId());
+        assertEquals(1, listings.get(1).getProvider().getOrdinal());
+    }
+
+    @Test
+    public void findsByEntityIdentifierURI() {
+        int n = IssuerDirectoryTest.counter.get();
+
+        assertEquals(Collections.singleton(this.schemeA), this.directory.findSchemes(null, "URN:ACME:" + n, null));
+        assertEquals(Collections.emptySet(), this.directory.findSchemes(null, "urn:unknown", null));
+    }
+
+    @Test
+    public void findsBySubjectKeyIdentifier() {
+        String ski = TrustListFixtures.CERTIFICATE_SKI.toUpperCase().replaceAll("(..)(?!$)", "$1:");
+
+        assertTrue(this.directory.findSchemes(null, null, ski).contains(this.schemeA));
+        assertTrue(this.directory.findSchemes(null, null, TrustListFixtures.CERTIFICATE_SKI).contains(this.schemeA));
+        assertFalse(this.directory.findSchemes(null, null, ski).contains(this.schemeB));
+    }
+
+    @Test
+    public void findListsEachProviderOnce() {
+        int n = IssuerDirectoryTest.counter.get();
+
+        List<IssuerListing> listings = this.directory.find("Acme " + n, "urn:acme:" + n, null);
+
+        assertEquals(1, listings.size());
+        assertEquals("Acme " + n, listings.get(0).getProvider().getLegalName());
+        assertTrue(this.directory.find(null, null, null).isEmpty());
+    }
+
+    @Test
+    public void followsNewVersions() throws XMLStreamException {
+        int n = IssuerDirectoryTest.counter.get();
+
+        // Telekom removed, Acme renamed, a provider inserted before it
+        TrustListRegistry.publish(this.schemeA, TrustListFixtures.list(2,
+                TrustListFixtures.provider("First " + n, null, "DE", TrustListFixtures.QUALIFIED, null),
+                TrustListFixtures.provider("Acme Corp " + n, "urn:acme:" + n, "FR", TrustListFixtures.QUALIFIED, null)));
+
+        assertEquals(Collections.singletonList(this.schemeB),
+                this.ids(this.directory.findByName("Deutsche Telekom AG")));
+        assertTrue(this.ids(this.directory.findBySubjectKeyIdentifier(TrustListFixtures.CERTIFICATE_SKI)).isEmpty());
+        assertTrue(this.directory.findByName("Acme " + n).isEmpty());
+
+        List<IssuerListing> listings = this.directory.findByEntityIdentifierURI("urn:acme:" + n);
+        assertEquals(1, listings.size());
+        assertEquals("Acme Corp " + n, listings.get(0).getProvider().getLegalName());
+        assertEquals(1, listings.get(0).getProvider().getOrdinal());
+        assertEquals(0, this.directory.findByName("first " + n).get(0).getProvider().getOrdinal());
+    }
+
+    @Test
+    public void ignoresOlderVersions() throws XMLStreamException {
+        int n = IssuerDirectoryTest.counter.get();
+
+        TrustListRegistry.publish(this.schemeB, TrustListFixtures.list(0,
+                TrustListFixtures.provider("Stale " + n, null, "IT", TrustListFixtures.TIMESTAMP, null)));
+
+        assertTrue(this.directory.findByName("Stale " + n).isEmpty());
+        assertEquals(1, this.directory.findByName("Other " + n).size());
+    }
+
+    /**
+     * @return the listings of this test's schemes.
+     */
+    private List<IssuerListing> schemes(List<IssuerListing> listings) {
+        List<IssuerListing> own = new ArrayList<>();
+        for(IssuerListing listing : listings) {
+            if(listing.getSchemeId().equals(this.schemeA) || listing.getSchemeId().equals(this.schemeB)) {
+                own.add(listing);
+            }
+        }
+        return own;
+    }
+
+    private List<String> ids(List<IssuerListing> listings) {
+        Set<String> ids = new TreeSet<>();
+        for(IssuerListing listing : this.schemes(listings)) {
+            ids.add(listing.getSchemeId());
+        }
+        return new ArrayList<>(ids);
+    }
+}
@@ -0,0 +1,122 @@
+package com.train.gccn.model.trustlist;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NameSearchIndexTest {
+
+    private NameSearchIndex index;
+
+    @Before
+    public void build() throws XMLStreamException {
+        List<String> providers = new ArrayList<>();
+        for(String name : new String[]{"Deutsche Telekom AG", "Société Générale", "Česká pošta", "Trustcenter",
+                "Trust Zeta", "D-Trust GmbH", "Bundesdruckerei"}) {
+            providers.add(TrustListFixtures.provider(name, null, "DE", TrustListFixtures.QUALIFIED, null));
+        }
+        for(int i = 0; i < 30; i++) {
+            providers.add(TrustListFixtures.provider("Alpha Trust " + i, null, "DE", TrustListFixtures.QUALIFIED, null));
+        }
+        providers.add(TrustListFixtures.provider("Deutsche Telekom AG", "urn:second", "DE", TrustListFixtures.TIMESTAMP, null));
+        this.index = TrustListFixtures.list(1, providers.toArray(new String[0])).getNameIndex();
+    }
+
+    @Test
+    public void normalize() {
+        assertEquals("societe generale s a", NameSearchIndex.normalize(" Société  Générale S.A. "));
+        assertEquals("ceska posta", NameSearchIndex.normalize("ČESKÁ-pošta"));
+        assertEquals("", NameSearchIndex.normalize("--"));
+    }
+
+    @Test
+    public void size() {
+        // three names per provider: TSPName in two languages and the trade name, the legal name repeats the first
+        assertEquals(37 * 3, this.index.size());
+    }
+
+    /**
+     * Matches are ordered by normalized name, so "... Brand" comes before "... (DE)".
+     */
+    @Test
+    public void suggestByLaterWord() {
+        assertEquals(Arrays.asList("Deutsche Telekom AG", "Deutsche Telekom AG Brand", "Deutsche Telekom AG (DE)"),
+                NameSearchIndexTest.names(this.index.suggest("telek", 10)));
+        assertEquals(Arrays.asList("Société Générale", "Société Générale Brand", "Société Générale (DE)"),
+                NameSearchIndexTest.names(this.index.suggest("GENERALE", 10)));
+        assertEquals(Arrays.asList("Česká pošta", "Česká pošta Brand", "Česká pošta (DE)"),
+                NameSearchIndexTest.names(this.index.suggest("ceska po", 10)));
+    }
+
+    @Test
+    public void suggestNamesStartingWithPrefixFirst() {
+        // 90 names have "trust" as a later word, only these six start with it
+        assertEquals(Arrays.asList("Trust Zeta", "Trust Zeta Brand", "Trust Zeta (DE)", "Trustcenter",
+                "Trustcenter Brand", "Trustcenter (DE)"), NameSearchIndexTest.names(this.index.suggest("trust", 6)));
+
+        List<String> names = NameSearchIndexTest.names(this.index.suggest("trust", 8));
+        assertEquals(Arrays.asList("Alpha Trust 0", "Alpha Trust 0 Brand"), names.subList(6, 8));
+    }
+
+    @Test
+    public void suggestMatchesAllCarriers() {
+        List<NameMatch> matches = this.index.suggest("deutsche telekom ag", 1);
+
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).getProviders().size());
+        assertEquals(0, matches.get(0).getProviders().get(0).getOrdinal());
+        assertEquals(37, matches.get(0).getProviders().get(1).getOrdinal());
+        assertEquals(1.0, matches.get(0).getScore(), 0);
+    }
+
+    @Test
+    public void suggestNothing() {
+        assertTrue(this.index.suggest("zzz", 10).isEmpty());
+        assertTrue(this.index.suggest("...", 10).isEmpty());
+        assertTrue(this.index.suggest("trust", 0).isEmpty());
+    }
+
+    @Test
+    public void similarFindsMisspelledNames() {
+        List<NameMatch> matches = this.index.similar("Deutche Telekon AG", 3, 0.3);
+
+        assertEquals("Deutsche Telekom AG", matches.get(0).getName());
+        assertTrue(matches.get(0).getScore() < 1);
+        for(int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).getScore() >= matches.get(i).getScore());
+        }
+        assertEquals("Bundesdruckerei", this.index.similar("Bundesdruckerai", 1, 0.3).get(0).getName());
+    }
+
+    @Test
+    public void similarScoresEqualNamesOne() {
+        List<NameMatch> matches = this.index.similar("société générale", 1, 0.3);
+
+        assertEquals("Société Générale", matches.get(0).getName());
+        assertEquals(1.0, matches.get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    public void similarRespectsLimits() {
+        assertEquals(5, this.index.similar("Alpha Trust", 5, 0.1).size());
+        assertTrue(this.index.similar("Qwxyz", 5, 0.3).isEmpty());
+        for(NameMatch match : this.index.similar("Trust", 50, 0.5)) {
+            assertTrue(match.getScore() >= 0.5);
+        }
+    }
+
+    private static List<String> names(List<NameMatch> matches) {
+        List<String> names = new ArrayList<>();
+        for(NameMatch match : matches) {
+            names.add(match.getName());
+        }
+        return names;
+    }
+}
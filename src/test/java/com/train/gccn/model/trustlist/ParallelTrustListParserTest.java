@@ -0,0 +1,70 @@
+package com.train.gccn.model.trustlist;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelTrustListParserTest {
+
+    @Test
+    public void sameListAsSequentialParser() throws XMLStreamException {
+        String xml = TrustListFixtures.document(42, TrustListFixtures.providers(500));
+
+        TrustList sequential = TrustListParser.parse(xml);
+        TrustList parallel = ParallelTrustListParser.parse(xml);
+
+        assertEquals(sequential.getSequenceNumber(), parallel.getSequenceNumber());
+        assertEquals(sequential.getSchemeOperatorName(), parallel.getSchemeOperatorName());
+        assertEquals(sequential.getSchemeTerritory(), parallel.getSchemeTerritory());
+        assertEquals(sequential.getListIssueDateTime(), parallel.getListIssueDateTime());
+        assertEquals(sequential.getNextUpdate(), parallel.getNextUpdate());
+        TrustListFixtures.assertSameProviders(sequential.getProviders(), parallel.getProviders());
+    }
+
+    @Test
+    public void singleProvider() throws XMLStreamException {
+        String xml = TrustListFixtures.document(1, TrustListFixtures.providers(1));
+
+        TrustListFixtures.assertSameProviders(TrustListParser.parse(xml).getProviders(),
+                ParallelTrustListParser.parse(xml).getProviders());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void malformedProvider() throws XMLStreamException {
+        String[] providers = TrustListFixtures.providers(50);
+        providers[17] = providers[17].replace("</tsl:TSPLegalName>", "");
+
+        ParallelTrustListParser.parse(TrustListFixtures.document(1, providers));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void truncatedList() throws XMLStreamException {
+        String xml = TrustListFixtures.document(1, TrustListFixtures.providers(50));
+
+        ParallelTrustListParser.parse(xml.substring(0, xml.indexOf("</tsl:TrustServiceProviderList>")));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void malformedBetweenProviders() throws XMLStreamException {
+        String[] providers = TrustListFixtures.providers(50);
+        providers[17] = providers[17] + "<tsl:Unclosed>";
+
+        ParallelTrustListParser.parse(TrustListFixtures.document(1, providers));
+    }
+
+    @Test
+    public void namespacesDeclaredOnProviderList() throws XMLStreamException {
+        String xml = TrustListFixtures.document(7, TrustListFixtures.providers(50))
+                .replace(" xmlns:tsl=\"http://uri.etsi.org/02231/v2#\"", "")
+                .replace("<tsl:TrustServiceStatusList>", "<TrustServiceStatusList xmlns=\"http://uri.etsi.org/02231/v2#\" xmlns:tsl=\"urn:header\">")
+                .replace("</tsl:TrustServiceStatusList>", "</TrustServiceStatusList>")
+                .replace("<tsl:TrustServiceProviderList>", "<tsl:TrustServiceProviderList xmlns:tsl=\"http://uri.etsi.org/02231/v2#\">");
+
+        TrustList parallel = ParallelTrustListParser.parse(xml);
+
+        assertEquals("7", parallel.getSequenceNumber());
+        TrustListFixtures.assertSameProviders(TrustListParser.parse(xml).getProviders(), parallel.getProviders());
+    }
+}
@@ -0,0 +1,179 @@
+package com.train.gccn.model.trustlist;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TrustListDiffTest {
+
+    private String[] providers;
+    private TrustList previous;
+    private TrustList current;
+
+    /**
+     * Current version: providers 0 and 1 removed, 5 renamed, 6 moved to another country, 7 with another service
+     * type, two providers added at the front and one at the end.
+     */
+    @Before
+    public void twoVersions() throws XMLStreamException {
+        this.providers = TrustListFixtures.providers(100);
+        this.previous = TrustListFixtures.list(1, this.providers);
+
+        List<String> changed = new ArrayList<>(Arrays.asList(this.providers).subList(2, this.providers.length));
+        changed.set(3, TrustListFixtures.provider("Renamed Trust 5", "urn:fixture:5", "FR", TrustListFixtures.QUALIFIED, null));
+        changed.set(4, this.providers[6].replace(">FR<", ">AT<"));
+        changed.set(5, this.providers[7].replace(TrustListFixtures.QUALIFIED, TrustListFixtures.TIMESTAMP));
+        changed.add(0, TrustListFixtures.provider("New Trust A", "urn:new:a", "DE", TrustListFixtures.QUALIFIED, null));
+        changed.add(1, TrustListFixtures.provider("New Trust B", "urn:new:b", "IT", TrustListFixtures.TIMESTAMP, null));
+        changed.add(TrustListFixtures.provider("New Trust C", null, "PL", TrustListFixtures.QUALIFIED,
+                TrustListFixtures.CERTIFICATE));
+        this.current = TrustListFixtures.list(2, changed.toArray(new String[0]));
+    }
+
+    @Test
+    public void classifiesProviders() {
+        TrustListDiff diff = TrustListDiff.compute(this.previous, this.current);
+
+        assertEquals(TrustListDiffTest.names(this.current.getProviders().get(0), this.current.getProviders().get(1),
+                this.current.getProviders().get(100)), TrustListDiffTest.names(diff.getAddedProviders()));
+        assertEquals(TrustListDiffTest.names(this.previous.getProviders().get(0), this.previous.getProviders().get(1)),
+                TrustListDiffTest.names(diff.getRemovedProviders()));
+        assertEquals(3, diff.getChangedProviders().size());
+        for(TrustListDiff.ProviderChange change : diff.getChangedProviders()) {
+            assertEquals(change.getPrevious().getEntityIdentifierURI(), change.getCurrent().getEntityIdentifierURI());
+        }
+    }
+
+    @Test
+    public void mapsUnchangedProviders() {
+        int[] ordinals = TrustListDiff.compute(this.previous, this.current).getUnchangedOrdinals();
+
+        assertEquals(this.previous.getProviders().size(), ordinals.length);
+        for(int i = 0; i < ordinals.length; i++) {
+            if(i < 2 || (i >= 5 && i <= 7)) {
+                assertEquals("provider " + i, -1, ordinals[i]);
+            } else {
+                assertEquals("provider " + i, i, ordinals[i]);
+                assertEquals(this.previous.getProviders().get(i).getNames(),
+                        this.current.getProviders().get(ordinals[i]).getNames());
+            }
+        }
+    }
+
+    @Test
+    public void sameContentIsEmpty() throws XMLStreamException {
+        TrustListDiff diff = TrustListDiff.compute(this.previous, TrustListFixtures.list(2, this.providers));
+
+        assertTrue(diff.isEmpty());
+        int[] identity = new int[this.providers.length];
+        Arrays.setAll(identity, i -> i);
+        assertArrayEquals(identity, diff.getUnchangedOrdinals());
+    }
+
+    @Test
+    public void firstVersionAddsAll() {
+        TrustListDiff diff = TrustListDiff.compute(null, this.previous);
+
+        assertEquals(this.providers.length, diff.getAddedProviders().size());
+        assertTrue(diff.getRemovedProviders().isEmpty());
+        assertTrue(diff.getChangedProviders().isEmpty());
+    }
+
+    @Test
+    public void incrementalIndexMatchesRebuild() {
+        TrustListIndex updated = new TrustListIndex(this.previous.getIndex(),
+                TrustListDiff.compute(this.previous, this.current));
+        TrustListIndex rebuilt = new TrustListIndex(this.current.getProviders());
+
+        Set<String> names = new TreeSet<>();
+        Set<String> uris = new TreeSet<>();
+        for(TrustList list : Arrays.asList(this.previous, this.current)) {
+            for(TSPRecord provider : list.getProviders()) {
+                names.add(provider.getLegalName());
+                names.add(provider.getLegalName().toUpperCase());
+                uris.add(String.valueOf(provider.getEntityIdentifierURI()));
+            }
+        }
+        for(boolean normalized : new boolean[]{false, true}) {
+            for(String name : names) {
+                assertEquals(name, TrustListDiffTest.ordinals(rebuilt.findByLegalName(name, normalized)),
+                        TrustListDiffTest.ordinals(updated.findByLegalName(name, normalized)));
+                assertEquals(name, TrustListDiffTest.ordinals(rebuilt.findByIssuerName(name, normalized)),
+                        TrustListDiffTest.ordinals(updated.findByIssuerName(name, normalized)));
+            }
+            for(String uri : uris) {
+                assertEquals(uri, TrustListDiffTest.ordinals(rebuilt.findByEntityIdentifierURI(uri, normalized)),
+                        TrustListDiffTest.ordinals(updated.findByEntityIdentifierURI(uri, normalized)));
+            }
+        }
+
+        List<TrustListQuery> queries = new ArrayList<>();
+        for(String country : new String[]{"DE", "fr", "AT", "CZ", "IT", "PL", "XX"}) {
+            TrustListQuery query = new TrustListQuery();
+            query.setCountry(country);
+            queries.add(query);
+        }
+        for(String type : new String[]{TrustListFixtures.QUALIFIED, TrustListFixtures.TIMESTAMP}) {
+            TrustListQuery query = new TrustListQuery();
+            query.setServiceType(type);
+            query.setQualifierURI(TrustListFixtures.QUALIFIER);
+            queries.add(query);
+        }
+        for(String prefix : new String[]{"new", "renamed", "deutsche", "Trust"}) {
+            TrustListQuery query = new TrustListQuery();
+            query.setNamePrefix(prefix);
+            queries.add(query);
+        }
+        for(TrustListQuery query : queries) {
+            assertArrayEquals(query.toString(), rebuilt.select(query), updated.select(query));
+        }
+    }
+
+    @Test
+    public void publishCarriesIndexOver() {
+        String schemeId = "diff-test.example";
+        this.previous.getIndex();
+
+        assertNotNull(TrustListRegistry.publish(schemeId, this.previous));
+        TrustListDiff diff = TrustListRegistry.publish(schemeId, this.current);
+
+        assertSame(this.current, TrustListRegistry.get(schemeId));
+        assertEquals(3, diff.getAddedProviders().size());
+        assertNotNull(this.current.peekIndex());
+        assertEquals(1, this.current.getIndex().findByLegalName("Renamed Trust 5", false).size());
+        assertNull("older version", TrustListRegistry.publish(schemeId, this.previous));
+    }
+
+    private static List<String> names(TSPRecord... providers) {
+        return TrustListDiffTest.names(Arrays.asList(providers));
+    }
+
+    private static List<String> names(List<TSPRecord> providers) {
+        List<String> names = new ArrayList<>();
+        for(TSPRecord provider : providers) {
+            names.add(provider.getLegalName());
+        }
+        return names;
+    }
+
+    private static List<Integer> ordinals(List<TSPRecord> providers) {
+        List<Integer> ordinals = new ArrayList<>();
+        for(TSPRecord provider : providers) {
+            ordinals.add(provider.getOrdinal());
+        }
+        return ordinals;
+    }
+}
@@ -0,0 +1,131 @@
+package com.train.gccn.model.trustlist;
+
+import com.train.gccn.ATVConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TrustListFileTest {
+
+    private static final String DIGEST = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TrustList list;
+
+    @Before
+    public void parse() throws XMLStreamException {
+        this.list = TrustListFixtures.list(7, TrustListFixtures.providers(300));
+    }
+
+    @After
+    public void disableStore() {
+        ATVConfiguration.get().clearProperty("trustlist_index_dir");
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        Path path = this.folder.getRoot().toPath().resolve("list.tlx");
+        TrustListFile.write(path, TrustListFileTest.DIGEST, this.list);
+
+        TrustList read = TrustListFile.read(path, TrustListFileTest.DIGEST);
+
+        assertEquals(this.list.getSequenceNumber(), read.getSequenceNumber());
+        assertEquals(this.list.getSchemeOperatorName(), read.getSchemeOperatorName());
+        assertEquals(this.list.getSchemeTerritory(), read.getSchemeTerritory());
+        assertEquals(this.list.getListIssueDateTime(), read.getListIssueDateTime());
+        assertEquals(this.list.getNextUpdate(), read.getNextUpdate());
+        TrustListFixtures.assertSameProviders(this.list.getProviders(), read.getProviders());
+    }
+
+    @Test
+    public void indexIsStored() throws IOException {
+        Path path = this.folder.getRoot().toPath().resolve("list.tlx");
+        TrustListFile.write(path, TrustListFileTest.DIGEST, this.list);
+
+        TrustList read = TrustListFile.read(path, TrustListFileTest.DIGEST);
+
+        assertNotNull(read.peekIndex());
+        TSPRecord provider = this.list.getProviders().get(123);
+        assertEquals(123, read.getIndex().findByLegalName(provider.getLegalName(), false).get(0).getOrdinal());
+        assertEquals(123, read.getIndex().findByEntityIdentifierURI("URN:FIXTURE:123", true).get(0).getOrdinal());
+
+        TrustListQuery query = new TrustListQuery();
+        query.setCountry("cz");
+        query.setServiceType(TrustListFixtures.TIMESTAMP);
+        assertEquals(this.list.query(query).getTotal(), read.query(query).getTotal());
+    }
+
+    @Test(expected = IOException.class)
+    public void otherDigest() throws IOException {
+        Path path = this.folder.getRoot().toPath().resolve("list.tlx");
+        TrustListFile.write(path, TrustListFileTest.DIGEST, this.list);
+
+        TrustListFile.read(path, TrustListFileTest.DIGEST.replace('0', 'f'));
+    }
+
+    @Test(expected = IOException.class)
+    public void notAListFile() throws IOException {
+        Path path = this.folder.newFile("list.tlx").toPath();
+        Files.write(path, "<TrustServiceStatusList/>".getBytes("UTF-8"));
+
+        TrustListFile.read(path, TrustListFileTest.DIGEST);
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptStringLength() throws IOException {
+        Path path = this.folder.getRoot().toPath().resolve("list.tlx");
+        TrustListFile.write(path, TrustListFileTest.DIGEST, this.list);
+        // length of the sequence number, after magic, version and digest
+        TrustListFileTest.overwriteInt(path, 2 * Integer.BYTES + Integer.BYTES + TrustListFileTest.DIGEST.length(), Integer.MAX_VALUE);
+
+        TrustListFile.read(path, TrustListFileTest.DIGEST);
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptArrayLength() throws IOException {
+        Path path = this.folder.getRoot().toPath().resolve("list.tlx");
+        TrustListFile.write(path, TrustListFileTest.DIGEST, this.list);
+        // length of the store's first array, after magic, version, digest and header
+        int position = 2 * Integer.BYTES;
+        for(String value : new String[]{TrustListFileTest.DIGEST, this.list.getSequenceNumber(), this.list.getSchemeOperatorName(),
+                this.list.getSchemeTerritory(), this.list.getListIssueDateTime(), this.list.getNextUpdate()}) {
+            position += Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        TrustListFileTest.overwriteInt(path, position, Integer.MAX_VALUE / 2);
+
+        TrustListFile.read(path, TrustListFileTest.DIGEST);
+    }
+
+    @Test
+    public void storeAndLoad() {
+        ATVConfiguration.get().setProperty("trustlist_index_dir", this.folder.getRoot().getAbsolutePath());
+        assertNull(TrustListFile.load(TrustListFileTest.DIGEST));
+
+        TrustListFile.store(TrustListFileTest.DIGEST, this.list);
+        TrustList loaded = TrustListFile.load(TrustListFileTest.DIGEST);
+
+        assertNotNull(loaded);
+        TrustListFixtures.assertSameProviders(this.list.getProviders(), loaded.getProviders());
+    }
+
+    private static void overwriteInt(Path path, int position, int value) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(position, value);
+        Files.write(path, bytes);
+    }
+}
@@ -0,0 +1,129 @@
+package com.train.gccn.model.trustlist;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Trust Status List documents and assertions for the trust list tests.
+ */
+public final class TrustListFixtures {
+
+    public static final String QUALIFIED = "http://uri.etsi.org/TrstSvc/Svctype/CA/QC";
+    public static final String TIMESTAMP = "http://uri.etsi.org/TrstSvc/Svctype/TSA/QTST";
+    public static final String QUALIFIER = "http://uri.etsi.org/TrstSvc/TrustedList/SvcInfoExt/QCForESig";
+
+    /**
+     * Self-signed EC certificate, CN=Fixture Trust Service, valid until 2126.
+     */
+    public static final String CERTIFICATE = "MIIB1jCCAXugAwIBAgIUcmdvhnknNDPwOdCz6lsxRLFpE2YwCgYIKoZIzj0EAwIwPzEeMBwGA1UEAwwVRml4dHVyZSBUcnVzdCBT"
+            + "ZXJ2aWNlMRAwDgYDVQQKDAdFeGFtcGxlMQswCQYDVQQGEwJERTAgFw0yNjEwMTkwNjE5MTFaGA8yMTI2MDkyNTA2MTkxMVowPzEe"
+            + "MBwGA1UEAwwVRml4dHVyZSBUcnVzdCBTZXJ2aWNlMRAwDgYDVQQKDAdFeGFtcGxlMQswCQYDVQQGEwJERTBZMBMGByqGSM49AgEG"
+            + "CCqGSM49AwEHA0IABC/s9mEYa/strWxNIsoQWIugwo4CNIOAWiabM2Yx1vlGqcqnni08leLbS6lJBUPr1xgoMq77jbaQ3Tk93oCO"
+            + "RxKjUzBRMB0GA1UdDgQWBBQJelAH36IJb5Stz9lHpcp8JsE7GjAfBgNVHSMEGDAWgBQJelAH36IJb5Stz9lHpcp8JsE7GjAPBgNV"
+            + "HRMBAf8EBTADAQH/MAoGCCqGSM49BAMCA0kAMEYCIQDxT2+KG7pVZ+OadBzGSXrJ3L9qVO+7J5KjAye8l6SxUQIhAKa6Re2/RyfH"
+            + "C/tRAkEYfeIQQhuxOI0WL7RP5DrMDbqX";
+    public static final String CERTIFICATE_SKI = "097a5007dfa2096f94adcfd947a5ca7c26c13b1a";
+
+    private static final String[] WORDS = {"Deutsche", "Telekom", "Société", "Générale", "Bundesdruckerei", "D-Trust",
+            "Česká", "pošta", "Sectigo", "Certum", "Infocert", "Trust", "Services"};
+    private static final String[] COUNTRIES = {"DE", "FR", "CZ", "IT", "PL"};
+
+    private TrustListFixtures() {
+        // static class
+    }
+
+    /**
+     * @param uri         entity identifier URI, or <code>null</code>.
+     * @param certificate base64 service certificate, or <code>null</code>.
+     */
+    public static String provider(String legalName, String uri, String country, String serviceType, String certificate) {
+        StringBuilder xml = new StringBuilder("<tsl:TrustServiceProvider><tsl:TSPInformation>");
+        xml.append("<tsl:TSPName><tsl:Name xml:lang=\"en\">").append(legalName).append("</tsl:Name>");
+        xml.append("<tsl:Name xml:lang=\"de\">").append(legalName).append(" (DE)</tsl:Name></tsl:TSPName>");
+        xml.append("<tsl:TSPTradeName><tsl:Name xml:lang=\"en\">").append(legalName).append(" Brand</tsl:Name></tsl:TSPTradeName>");
+        xml.append("<tsl:TSPLegalName><tsl:Name xml:lang=\"en\">").append(legalName).append("</tsl:Name></tsl:TSPLegalName>");
+        if(uri != null) {
+            xml.append("<tsl:TSPEntityIdentifierList><tsl:TSPEntityIdentifier><tsl:TSPEntityIdentifierURI>").append(uri)
+                    .append("</tsl:TSPEntityIdentifierURI></tsl:TSPEntityIdentifier></tsl:TSPEntityIdentifierList>");
+        }
+        xml.append("<tsl:TSPQualifierList><tsl:TSPQualifier><tsl:QualifierURI>").append(TrustListFixtures.QUALIFIER)
+                .append("</tsl:QualifierURI></tsl:TSPQualifier></tsl:TSPQualifierList>");
+        xml.append("<tsl:TSPAddress><tsl:PostalAddresses><tsl:PostalAddress><tsl:CountryName>").append(country)
+                .append("</tsl:CountryName></tsl:PostalAddress></tsl:PostalAddresses></tsl:TSPAddress>");
+        xml.append("</tsl:TSPInformation><tsl:TSPServices><tsl:TSPService><tsl:ServiceInformation>");
+        xml.append("<tsl:ServiceTypeIdentifier>").append(serviceType).append("</tsl:ServiceTypeIdentifier>");
+        xml.append("<tsl:ServiceName><tsl:Name xml:lang=\"en\">").append(legalName).append(" CA</tsl:Name></tsl:ServiceName>");
+        if(certificate != null) {
+            xml.append("<tsl:ServiceDigitalIdentity><tsl:DigitalId><tsl:X509Certificate>").append(certificate)
+                    .append("</tsl:X509Certificate></tsl:DigitalId></tsl:ServiceDigitalIdentity>");
+        }
+        xml.append("<tsl:ServiceStatus>http://uri.etsi.org/TrstSvc/TrustedList/Svcstatus/granted</tsl:ServiceStatus>");
+        xml.append("</tsl:ServiceInformation></tsl:TSPService></tsl:TSPServices></tsl:TrustServiceProvider>");
+        return xml.toString();
+    }
+
+    public static String document(int sequenceNumber, String... providers) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        xml.append("<tsl:TrustServiceStatusList xmlns:tsl=\"http://uri.etsi.org/02231/v2#\"><tsl:SchemeInformation>");
+        xml.append("<tsl:TSLSequenceNumber>").append(sequenceNumber).append("</tsl:TSLSequenceNumber>");
+        xml.append("<tsl:SchemeOperatorName><tsl:Name xml:lang=\"en\">Fixture Operator</tsl:Name></tsl:SchemeOperatorName>");
+        xml.append("<tsl:SchemeTerritory>EU</tsl:SchemeTerritory>");
+        xml.append("<tsl:ListIssueDateTime>2026-10-01T00:00:00Z</tsl:ListIssueDateTime>");
+        xml.append("<tsl:NextUpdate><tsl:dateTime>2027-04-01T00:00:00Z</tsl:dateTime></tsl:NextUpdate>");
+        xml.append("</tsl:SchemeInformation><tsl:TrustServiceProviderList>");
+        for(String provider : providers) {
+            xml.append(provider);
+        }
+        xml.append("</tsl:TrustServiceProviderList></tsl:TrustServiceStatusList>");
+        return xml.toString();
+    }
+
+    public static TrustList list(int sequenceNumber, String... providers) throws XMLStreamException {
+        return TrustListParser.parse(TrustListFixtures.document(sequenceNumber, providers));
+    }
+
+    /**
+     * @return <code>count</code> providers with generated names (each unique by its number), countries and types.
+     */
+    public static String[] providers(int count) {
+        String[] providers = new String[count];
+        for(int i = 0; i < count; i++) {
+            String name = TrustListFixtures.WORDS[i % TrustListFixtures.WORDS.length] + " "
+                    + TrustListFixtures.WORDS[(i / 7) % TrustListFixtures.WORDS.length] + " " + i;
+            providers[i] = TrustListFixtures.provider(name, "urn:fixture:" + i,
+                    TrustListFixtures.COUNTRIES[i % TrustListFixtures.COUNTRIES.length],
+                    i % 3 == 0 ? TrustListFixtures.TIMESTAMP : TrustListFixtures.QUALIFIED,
+                    i % 10 == 0 ? TrustListFixtures.CERTIFICATE : null);
+        }
+        return providers;
+    }
+
+    public static void assertSameProviders(List<TSPRecord> expected, List<TSPRecord> actual) {
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            TSPRecord e = expected.get(i);
+            TSPRecord a = actual.get(i);
+            assertEquals(i, a.getOrdinal());
+            assertEquals(e.getNames(), a.getNames());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getLegalName(), a.getLegalName());
+            assertEquals(e.getIssuerName(), a.getIssuerName());
+            assertEquals(e.getTrustSchemeName(), a.getTrustSchemeName());
+            assertEquals(e.getEntityIdentifierURI(), a.getEntityIdentifierURI());
+            assertEquals(e.getQualifierURI(), a.getQualifierURI());
+            assertEquals(e.getCountryName(), a.getCountryName());
+            assertEquals(e.getServices().size(), a.getServices().size());
+            for(int j = 0; j < e.getServices().size(); j++) {
+                ServiceRecord es = e.getServices().get(j);
+                ServiceRecord as = a.getServices().get(j);
+                assertEquals(es.getServiceName(), as.getServiceName());
+                assertEquals(es.getServiceStatus(), as.getServiceStatus());
+                assertEquals(es.getServiceTypeIdentifier(), as.getServiceTypeIdentifier());
+                assertEquals(es.getServiceDigitalId(), as.getServiceDigitalId());
+                assertEquals(es.getAdditionalServiceInfoURIs(), as.getAdditionalServiceInfoURIs());
+            }
+        }
+    }
+}
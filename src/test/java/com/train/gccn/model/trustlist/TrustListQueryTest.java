@@ -0,0 +1,126 @@
+package com.train.gccn.model.trustlist;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TrustListQueryTest {
+
+    private String[] providers;
+    private TrustList list;
+
+    @Before
+    public void parse() throws XMLStreamException {
+        this.providers = TrustListFixtures.providers(250);
+        this.list = TrustListFixtures.list(3, this.providers);
+    }
+
+    @Test
+    public void pagesCoverAllMatches() {
+        TrustListQuery query = new TrustListQuery();
+        query.setCountry("de");
+        query.setServiceType(TrustListFixtures.QUALIFIED);
+
+        this.assertPages(query, 7, provider -> "DE".equals(provider.getCountryName())
+                && TrustListFixtures.QUALIFIED.equals(provider.getServices().get(0).getServiceTypeIdentifier()));
+    }
+
+    @Test
+    public void pagesByNamePrefix() {
+        TrustListQuery query = new TrustListQuery();
+        query.setNamePrefix("  DEUTSCHE ");
+
+        this.assertPages(query, 4, provider -> provider.getLegalName().startsWith("Deutsche"));
+    }
+
+    @Test
+    public void pagesWithoutFilter() {
+        this.assertPages(new TrustListQuery(), 50, provider -> true);
+    }
+
+    @Test
+    public void lastPageIsFull() {
+        TrustListQuery query = new TrustListQuery();
+        query.setLimit(250);
+
+        TrustListPage page = this.list.query(query);
+
+        assertEquals(250, page.getProviders().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void noMatches() {
+        TrustListQuery query = new TrustListQuery();
+        query.setCountry("XX");
+
+        TrustListPage page = this.list.query(query);
+
+        assertEquals(0, page.getTotal());
+        assertTrue(page.getProviders().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cursorOfOtherVersion() throws XMLStreamException {
+        TrustListQuery query = new TrustListQuery();
+        query.setLimit(10);
+        query.setCursor(this.list.query(query).getNextCursor());
+
+        TrustListFixtures.list(4, this.providers).query(query);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCursor() {
+        TrustListQuery query = new TrustListQuery();
+        query.setCursor("not a cursor");
+
+        this.list.query(query);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLimit() {
+        new TrustListQuery().setLimit(0);
+    }
+
+    /**
+     * Follows the cursors from the first page and compares the providers with a scan of the list.
+     */
+    private void assertPages(TrustListQuery query, int limit, Predicate<TSPRecord> filter) {
+        List<Integer> expected = new ArrayList<>();
+        for(TSPRecord provider : this.list.getProviders()) {
+            if(filter.test(provider)) {
+                expected.add(provider.getOrdinal());
+            }
+        }
+        assertTrue(expected.size() > limit);
+
+        query.setLimit(limit);
+        List<Integer> paged = new ArrayList<>();
+        int pages = 0;
+        do {
+            TrustListPage page = this.list.query(query);
+            assertEquals(expected.size(), page.getTotal());
+            assertTrue(page.getProviders().size() <= limit);
+            for(TSPRecord provider : page.getProviders()) {
+                paged.add(provider.getOrdinal());
+            }
+            if(page.getNextCursor() != null) {
+                assertEquals(limit, page.getProviders().size());
+            }
+            query.setCursor(page.getNextCursor());
+            pages++;
+        } while(query.getCursor() != null);
+
+        assertEquals(expected, paged);
+        assertEquals((expected.size() + limit - 1) / limit, pages);
+    }
+}
@@ -0,0 +1,80 @@
+package com.train.gccn.model.trustscheme;
+
+import com.train.gccn.model.trustlist.TSPRecord;
+import com.train.gccn.model.trustlist.TrustList;
+import com.train.gccn.model.trustlist.TrustListFixtures;
+import com.train.gccn.model.trustlist.TrustListParser;
+import eu.europa.esig.dss.tsl.ServiceInfo;
+import eu.europa.esig.dss.tsl.TSLParserResult;
+import eu.europa.esig.dss.tsl.TSLServiceProvider;
+import eu.europa.esig.dss.tsl.service.TSLParser;
+import eu.europa.esig.dss.x509.CertificateToken;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class TrustListTslEntryTest {
+
+    private static final String NAME = "Fixture Trust";
+    private static final String SCHEME = "fixture.example";
+
+    /**
+     * A provider with its German <code>TSPName</code> first and a legal name differing from it.
+     */
+    private static String provider() {
+        return TrustListFixtures.provider(TrustListTslEntryTest.NAME, "urn:fixture:0", "DE", TrustListFixtures.QUALIFIED,
+                TrustListFixtures.CERTIFICATE)
+                .replace("<tsl:TSPName><tsl:Name xml:lang=\"en\">Fixture Trust</tsl:Name><tsl:Name xml:lang=\"de\">Fixture Trust (DE)</tsl:Name>",
+                        "<tsl:TSPName><tsl:Name xml:lang=\"de\">Fixture Trust (DE)</tsl:Name><tsl:Name xml:lang=\"en\">Fixture Trust</tsl:Name>")
+                .replace("<tsl:TSPLegalName><tsl:Name xml:lang=\"en\">Fixture Trust</tsl:Name>",
+                        "<tsl:TSPLegalName><tsl:Name xml:lang=\"en\">Fixture Trust Holding</tsl:Name>");
+    }
+
+    private static TrustListTslEntry entry(String xml) throws XMLStreamException {
+        TrustList list = TrustListParser.parse(xml);
+        TSPRecord provider = list.getProviders().get(0);
+        return new TrustListTslEntry(list, provider, provider.getServices().get(0), TrustListTslEntryTest.SCHEME);
+    }
+
+    @Test
+    public void tspNamePrefersEnglish() throws XMLStreamException {
+        TrustListTslEntry entry = TrustListTslEntryTest.entry(TrustListFixtures.document(1, TrustListTslEntryTest.provider()));
+
+        assertEquals(TrustListTslEntryTest.NAME, entry.getField("tspName"));
+    }
+
+    @Test
+    public void tspNameWithoutEnglish() throws XMLStreamException {
+        String provider = TrustListTslEntryTest.provider()
+                .replace("<tsl:Name xml:lang=\"en\">Fixture Trust</tsl:Name></tsl:TSPName>", "<tsl:Name xml:lang=\"fr\">Fixture Trust</tsl:Name></tsl:TSPName>");
+        TrustListTslEntry entry = TrustListTslEntryTest.entry(TrustListFixtures.document(1, provider));
+
+        assertEquals("Fixture Trust (DE)", entry.getField("tspName"));
+    }
+
+    @Test
+    public void sameFieldsAsEidasTslEntry() throws Exception {
+        String xml = TrustListFixtures.document(1, TrustListTslEntryTest.provider());
+
+        // the DD4J path: DSS parses the list, its TSLRepository fills ServiceInfo from the parsed provider
+        TSLParserResult result = new TSLParser(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))).call();
+        TSLServiceProvider provider = result.getServiceProviders().get(0);
+        ServiceInfo serviceInfo = new ServiceInfo();
+        serviceInfo.setTlCountryCode(result.getTerritory());
+        serviceInfo.setTspName(provider.getName());
+        CertificateToken token = provider.getServices().get(0).getCertificates().get(0);
+        EidasTslEntry eidas = new EidasTslEntry(token, Collections.singleton(serviceInfo), TrustListTslEntryTest.SCHEME);
+
+        TrustListTslEntry entry = TrustListTslEntryTest.entry(xml);
+
+        assertEquals(eidas.getCertificate(), entry.getCertificate());
+        assertEquals(eidas.getField("tlCountryCode"), entry.getField("tlCountryCode"));
+        assertEquals(eidas.getField("tspName"), entry.getField("tspName"));
+        assertEquals(TrustListTslEntryTest.NAME, entry.getField("tspName"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.train.gccn.wrapper;
+
+import com.google.common.hash.Hashing;
+import com.train.gccn.model.trustlist.TrustListFixtures;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.DigestMethod;
+import javax.xml.crypto.dsig.Reference;
+import javax.xml.crypto.dsig.SignedInfo;
+import javax.xml.crypto.dsig.Transform;
+import javax.xml.crypto.dsig.XMLSignature;
+import javax.xml.crypto.dsig.XMLSignatureFactory;
+import javax.xml.crypto.dsig.dom.DOMSignContext;
+import javax.xml.crypto.dsig.keyinfo.KeyInfo;
+import javax.xml.crypto.dsig.keyinfo.KeyInfoFactory;
+import javax.xml.crypto.dsig.spec.C14NMethodParameterSpec;
+import javax.xml.crypto.dsig.spec.TransformParameterSpec;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class XMLSignatureHelperTest {
+
+    /**
+     * PKCS#8 EC key of {@link TrustListFixtures#CERTIFICATE}.
+     */
+    private static final String KEY = "MIGHAgEAMBMGByqGSM49AgEGCCqGSM49AwEHBG0wawIBAQQgl1CyEpkh57DeJLhNn9/CvnA9fvFrMaelwK6QYemjcF6hRANCAAQv"
+            + "7PZhGGv7La1sTSLKEFiLoMKOAjSDgFommzNmMdb5RqnKp54tPJXi20upSQVD69cYKDKu+422kN05Pd6AjkcS";
+    private static final String ECDSA_SHA256 = "http://www.w3.org/2001/04/xmldsig-more#ecdsa-sha256";
+
+    /**
+     * @return a list document with <code>Id</code>s on the document element and its scheme information.
+     */
+    private static Document document(int sequenceNumber) throws Exception {
+        String xml = TrustListFixtures.document(sequenceNumber, TrustListFixtures.providers(3))
+                .replace("<tsl:TrustServiceStatusList ", "<tsl:TrustServiceStatusList Id=\"tsl\" ")
+                .replace("<tsl:SchemeInformation>", "<tsl:SchemeInformation Id=\"scheme\">");
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+
+    /**
+     * Appends an enveloped signature over <code>uri</code> to the document element.
+     */
+    private static Element sign(Document doc, String uri) throws Exception {
+        Element scheme = (Element) doc.getDocumentElement().getFirstChild();
+        scheme.setIdAttribute("Id", true);
+        doc.getDocumentElement().setIdAttribute("Id", true);
+
+        XMLSignatureFactory factory = XMLSignatureFactory.getInstance("DOM");
+        List<Transform> transforms = Arrays.asList(
+                factory.newTransform(Transform.ENVELOPED, (TransformParameterSpec) null),
+                factory.newTransform(CanonicalizationMethod.EXCLUSIVE, (TransformParameterSpec) null));
+        Reference reference = factory.newReference(uri, factory.newDigestMethod(DigestMethod.SHA256, null), transforms, null, null);
+        SignedInfo signedInfo = factory.newSignedInfo(
+                factory.newCanonicalizationMethod(CanonicalizationMethod.EXCLUSIVE, (C14NMethodParameterSpec) null),
+                factory.newSignatureMethod(XMLSignatureHelperTest.ECDSA_SHA256, null),
+                Collections.singletonList(reference));
+        KeyInfoFactory keyInfoFactory = factory.getKeyInfoFactory();
+        KeyInfo keyInfo = keyInfoFactory.newKeyInfo(Collections.singletonList(
+                keyInfoFactory.newX509Data(Collections.singletonList(XMLSignatureHelperTest.certificate()))));
+
+        PrivateKey key = KeyFactory.getInstance("EC").generatePrivate(
+                new PKCS8EncodedKeySpec(Base64.getDecoder().decode(XMLSignatureHelperTest.KEY)));
+        factory.newXMLSignature(signedInfo, keyInfo).sign(new DOMSignContext(key, doc.getDocumentElement()));
+
+        return (Element) doc.getElementsByTagNameNS(XMLSignature.XMLNS, "Signature").item(0);
+    }
+
+    private static X509Certificate certificate() throws Exception {
+        return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+                new ByteArrayInputStream(Base64.getDecoder().decode(TrustListFixtures.CERTIFICATE)));
+    }
+
+    private static String serialize(Document doc) throws Exception {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        StringWriter xml = new StringWriter();
+        factory.newTransformer().transform(new DOMSource(doc), new StreamResult(xml));
+        return xml.toString();
+    }
+
+    /**
+     * @return SMIMEA record (DANE-EE, full certificate, SHA-256) of <code>certificate</code>.
+     */
+    private static List<SMIMEAcert> signers(byte[] certificate) {
+        return Collections.singletonList(new SMIMEAcert(SMIMEAcert.CertUsage.Domain_issued_certificate,
+                SMIMEAcert.Selector.Full, SMIMEAcert.MatchingType.SHA256, Hashing.sha256().hashBytes(certificate).asBytes()));
+    }
+
+    private static List<SMIMEAcert> signers() throws Exception {
+        return XMLSignatureHelperTest.signers(XMLSignatureHelperTest.certificate().getEncoded());
+    }
+
+    @Test
+    public void signedDocument() throws Exception {
+        Document doc = XMLSignatureHelperTest.document(1);
+        XMLSignatureHelperTest.sign(doc, "");
+
+        assertTrue(XMLSignatureHelper.verify(XMLSignatureHelperTest.serialize(doc), XMLSignatureHelperTest.signers()));
+    }
+
+    @Test
+    public void signedDocumentElementId() throws Exception {
+        Document doc = XMLSignatureHelperTest.document(2);
+        XMLSignatureHelperTest.sign(doc, "#tsl");
+
+        assertTrue(XMLSignatureHelper.verify(XMLSignatureHelperTest.serialize(doc), XMLSignatureHelperTest.signers()));
+    }
+
+    @Test
+    public void modifiedDocument() throws Exception {
+        Document doc = XMLSignatureHelperTest.document(3);
+        XMLSignatureHelperTest.sign(doc, "");
+        String xml = XMLSignatureHelperTest.serialize(doc).replace(">EU<", ">DE<");
+
+        assertFalse(XMLSignatureHelper.verify(xml, XMLSignatureHelperTest.signers()));
+    }
+
+    @Test
+    public void movedSignature() throws Exception {
+        Document doc = XMLSignatureHelperTest.document(4);
+        Element signature = XMLSignatureHelperTest.sign(doc, "");
+        Node scheme = doc.getDocumentElement().getFirstChild();
+        scheme.appendChild(signature);
+
+        assertFalse(XMLSignatureHelper.verify(XMLSignatureHelperTest.serialize(doc), XMLSignatureHelperTest.signers()));
+    }
+
+    @Test
+    public void duplicatedSignature() throws Exception {
+        Document doc = XMLSignatureHelperTest.document(5);
+        Element signature = XMLSignatureHelperTest.sign(doc, "");
+        doc.getDocumentElement().getFirstChild().appendChild(signature.cloneNode(true));
+
+        assertFalse(XMLSignatureHelper.verify(XMLSignatureHelperTest.serialize(doc), XMLSignatureHelperTest.signers()));
+    }
+
+    @Test
+    public void referenceToFragment() throws Exception {
+        Document doc = XMLSignatureHelperTest.document(6);
+        XMLSignatureHelperTest.sign(doc, "#scheme");
+
+        assertFalse(XMLSignatureHelper.verify(XMLSignatureHelperTest.serialize(doc), XMLSignatureHelperTest.signers()));
+    }
+
+    @Test
+    public void signerNotInSMIMEARecord() throws Exception {
+        Document doc = XMLSignatureHelperTest.document(7);
+        XMLSignatureHelperTest.sign(doc, "");
+
+        assertFalse(XMLSignatureHelper.verify(XMLSignatureHelperTest.serialize(doc),
+                XMLSignatureHelperTest.signers("another certificate".getBytes("UTF-8"))));
+    }
+}